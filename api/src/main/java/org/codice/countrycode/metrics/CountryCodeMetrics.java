@@ -0,0 +1,72 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.countrycode.metrics;
+
+import org.codice.countrycode.standard.Standard;
+
+/**
+ * Receives measurements of country code conversions, mapping lookups and data loads, for example
+ * to publish them as counters and timers of a metrics library. Every method does nothing by
+ * default, so implementations only override what they record.
+ *
+ * <p>Implementations are found with {@link java.util.ServiceLoader} or installed with {@link
+ * Metrics#setMetrics(CountryCodeMetrics)}. They are called on the conversion path and from many
+ * threads at once, so they must be thread-safe and should not block.
+ */
+public interface CountryCodeMetrics {
+
+  /** Metrics that record nothing, used when no implementation is installed. */
+  CountryCodeMetrics NOOP = new CountryCodeMetrics() {};
+
+  /**
+   * Records the conversion of one or more values from one standard to another.
+   *
+   * @param from the standard converted from
+   * @param to the standard converted to
+   * @param count the number of values converted
+   * @param emptyCount how many of the values had no conversion
+   * @param durationNanos the time taken to convert all of the values
+   */
+  default void recordConversions(
+      Standard from, Standard to, int count, int emptyCount, long durationNanos) {}
+
+  /**
+   * Records lookups of one or more values in the mappings of a mapping strategy. Converters look
+   * values up in a conversion table built from the mappings rather than in the strategy itself,
+   * and report each conversion as a lookup here as well as through {@link #recordConversions}.
+   *
+   * @param standard the standard of the values looked up
+   * @param count the number of values looked up
+   * @param missCount how many of the values had no mapping
+   * @param durationNanos the time taken to look up all of the values
+   */
+  default void recordMappingLookups(
+      Standard standard, int count, int missCount, long durationNanos) {}
+
+  /**
+   * Records the loading of a standard provider.
+   *
+   * @param standard the standard of the provider
+   * @param durationNanos the time taken to create the provider
+   */
+  default void recordProviderLoad(Standard standard, long durationNanos) {}
+
+  /**
+   * Records the loading or reloading of the mappings of a mapping strategy.
+   *
+   * @param source the file or resource the mappings were loaded from
+   * @param durationNanos the time taken to load the mappings
+   */
+  default void recordMappingLoad(String source, long durationNanos) {}
+}
@@ -0,0 +1,49 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.countrycode.metrics;
+
+import java.util.Iterator;
+import java.util.ServiceLoader;
+
+/**
+ * Holds the {@link CountryCodeMetrics} that conversions, lookups and loads are reported to. The
+ * first implementation found by {@link ServiceLoader} is installed at startup; without one,
+ * nothing is recorded and instrumented code skips its measurements entirely.
+ */
+public final class Metrics {
+
+  private static volatile CountryCodeMetrics metrics = loadMetrics();
+
+  private Metrics() {}
+
+  /** @return the installed metrics, or {@link CountryCodeMetrics#NOOP} if there are none */
+  public static CountryCodeMetrics getMetrics() {
+    return metrics;
+  }
+
+  /**
+   * Installs the metrics to report to, replacing any installed before.
+   *
+   * @param countryCodeMetrics the metrics, or null to stop recording
+   */
+  public static void setMetrics(CountryCodeMetrics countryCodeMetrics) {
+    metrics = countryCodeMetrics == null ? CountryCodeMetrics.NOOP : countryCodeMetrics;
+  }
+
+  private static CountryCodeMetrics loadMetrics() {
+    Iterator<CountryCodeMetrics> implementations =
+        ServiceLoader.load(CountryCodeMetrics.class, Metrics.class.getClassLoader()).iterator();
+    return implementations.hasNext() ? implementations.next() : CountryCodeMetrics.NOOP;
+  }
+}
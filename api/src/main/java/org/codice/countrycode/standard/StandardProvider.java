@@ -32,4 +32,28 @@ public interface StandardProvider {
    *     error reading the source
    */
   Set<CountryCode> getStandardEntries();
+
+  /**
+   * Looks up the {@code CountryCode} of this provider's {@code Standard} whose value in the given
+   * format equals {@code value}, ignoring case and surrounding whitespace. Providers should override
+   * this with an indexed lookup; the default scans {@link #getStandardEntries()}.
+   *
+   * @param formatName name of the format to match, one of the standard's format names
+   * @param value the format value to look up
+   * @return the country code, or null if there is none
+   */
+  default CountryCode getStandardEntry(String formatName, String value) {
+    if (value == null) {
+      return null;
+    }
+
+    String trimmedValue = value.trim();
+    for (CountryCode countryCode : getStandardEntries()) {
+      String formatValue = countryCode.getAsFormat(formatName);
+      if (formatValue != null && formatValue.trim().equalsIgnoreCase(trimmedValue)) {
+        return countryCode;
+      }
+    }
+    return null;
+  }
 }
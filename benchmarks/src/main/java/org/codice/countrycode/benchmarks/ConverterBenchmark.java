@@ -0,0 +1,110 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.countrycode.benchmarks;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.codice.countrycode.CountryCodeConverter;
+import org.codice.countrycode.standard.CountryCode;
+import org.codice.countrycode.standard.Standard;
+import org.codice.countrycode.standards.fips.FipsStandard;
+import org.codice.countrycode.standards.genc.provider.GencStandard;
+import org.codice.countrycode.standards.iso.Iso3166Standard;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures steady-state conversions between every ordered pair of the FIPS, GENC and ISO standards,
+ * including same-standard conversions, for both values that are mapped and values that are not.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConverterBenchmark {
+
+  private static final Map<String, Standard> STANDARDS =
+      ImmutableMap.of(
+          "FIPS", new FipsStandard(), "GENC", new GencStandard(), "ISO3166", new Iso3166Standard());
+
+  /** Afghanistan in each standard. FIPS only has an alpha2 format. */
+  private static final Map<String, String[]> HIT_VALUES =
+      ImmutableMap.of(
+          "FIPS", new String[] {"AF", "AF", "AF"},
+          "GENC", new String[] {"AF", "AFG", "004"},
+          "ISO3166", new String[] {"AF", "AFG", "004"});
+
+  private static final String[] MISS_VALUES = {"QQ", "QQQ", "999"};
+
+  @Param({"FIPS", "GENC", "ISO3166"})
+  private String from;
+
+  @Param({"FIPS", "GENC", "ISO3166"})
+  private String to;
+
+  @Param({"true", "false"})
+  private boolean hit;
+
+  private CountryCodeConverter converter;
+
+  private Standard fromStandard;
+
+  private Standard toStandard;
+
+  private String alpha2;
+
+  private String alpha3;
+
+  private String numeric;
+
+  @Setup
+  public void setup() {
+    converter = new CountryCodeConverter();
+    fromStandard = STANDARDS.get(from);
+    toStandard = STANDARDS.get(to);
+
+    String[] values = hit ? HIT_VALUES.get(from) : MISS_VALUES;
+    alpha2 = values[0];
+    alpha3 = values[1];
+    numeric = values[2];
+  }
+
+  @Benchmark
+  public Set<CountryCode> fromAlpha2() {
+    return converter.fromAlpha2(alpha2, fromStandard, toStandard);
+  }
+
+  @Benchmark
+  public Set<CountryCode> fromAlpha3() {
+    return converter.fromAlpha3(alpha3, fromStandard, toStandard);
+  }
+
+  @Benchmark
+  public Set<CountryCode> fromNumeric() {
+    return converter.fromNumeric(numeric, fromStandard, toStandard);
+  }
+}
@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.countrycode.benchmarks;
+
+import java.lang.reflect.Constructor;
+import java.util.concurrent.TimeUnit;
+import org.codice.countrycode.converter.MappingStrategy;
+import org.codice.countrycode.mapping.CsvMappingStrategy;
+import org.codice.countrycode.standard.StandardProvider;
+import org.codice.countrycode.standard.StandardRegistry;
+import org.codice.countrycode.standard.StandardRegistryImpl;
+import org.codice.countrycode.standards.fips.FipsJsonStandardProvider;
+import org.codice.countrycode.standards.genc.provider.GencStaxStandardProvider;
+import org.codice.countrycode.standards.genc.provider.GencXmlStandardProvider;
+import org.codice.countrycode.standards.iso.Iso3166StandardProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the construction cost of the standard providers, registry and mapping strategy, and
+ * the cost of loading the registry's providers on initialization or on a first lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoadBenchmark {
+
+  private static final String MAPPING_FILE_PATH = "mappings.csv";
+
+  private Constructor<StandardRegistryImpl> registryConstructor;
+
+  @Setup
+  public void setup() throws NoSuchMethodException {
+    // The registry is a singleton, so fresh instances are created reflectively to measure a load.
+    registryConstructor = StandardRegistryImpl.class.getDeclaredConstructor();
+    registryConstructor.setAccessible(true);
+
+    // Load the shared registry's providers up front so the CSV mapping benchmark only measures
+    // parsing the mapping file.
+    new CsvMappingStrategy(MAPPING_FILE_PATH, StandardRegistryImpl.getInstance());
+  }
+
+  @Benchmark
+  public StandardProvider iso3166StandardProvider() {
+    return new Iso3166StandardProvider();
+  }
+
+  @Benchmark
+  public StandardProvider fipsJsonStandardProvider() {
+    return new FipsJsonStandardProvider();
+  }
+
+  @Benchmark
+  public StandardProvider gencXmlStandardProvider() {
+    return new GencXmlStandardProvider();
+  }
+
+  @Benchmark
+  public StandardProvider gencStaxStandardProvider() {
+    return new GencStaxStandardProvider();
+  }
+
+  /** Providers are loaded lazily, so this only measures registering them. */
+  @Benchmark
+  public StandardRegistry standardRegistry() throws ReflectiveOperationException {
+    return registryConstructor.newInstance();
+  }
+
+  /** Constructs a registry and loads all of its providers concurrently. */
+  @Benchmark
+  public StandardRegistry initializedStandardRegistry() throws ReflectiveOperationException {
+    StandardRegistryImpl standardRegistry = registryConstructor.newInstance();
+    standardRegistry.initialize().join();
+    return standardRegistry;
+  }
+
+  /** Constructs a registry and looks up one standard, which loads only that provider. */
+  @Benchmark
+  public StandardProvider firstLookup() throws ReflectiveOperationException {
+    return registryConstructor.newInstance().lookup("ISO3166", "1");
+  }
+
+  @Benchmark
+  public MappingStrategy csvMappingStrategy() {
+    return new CsvMappingStrategy(MAPPING_FILE_PATH, StandardRegistryImpl.getInstance());
+  }
+
+  @Benchmark
+  public MappingStrategy snapshotMappingStrategy() {
+    // The default constructor decodes the precompiled standards snapshot instead of the CSV.
+    return new CsvMappingStrategy();
+  }
+}
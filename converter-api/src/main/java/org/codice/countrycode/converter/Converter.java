@@ -13,7 +13,17 @@
  */
 package org.codice.countrycode.converter;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import org.codice.countrycode.standard.CountryCode;
 import org.codice.countrycode.standard.Standard;
 
@@ -56,6 +66,225 @@ public interface Converter {
 
   Set<CountryCode> fromNumeric(String numeric, Standard from, Standard to);
 
+  /**
+   * Takes a value in any format of the {@code from} standard and converts to the corresponding
+   * country code in the {@code to} standard.
+   *
+   * <p>The default implementation picks the method for the format the value looks like: {@link
+   * #fromNumeric} for digits, {@link #fromAlpha3} for three characters and {@link #fromAlpha2}
+   * otherwise.
+   *
+   * @param value the identifier of the country code to convert
+   * @param from the standard which has a country code with the {@code value}
+   * @param to the standard to map to
+   * @return a set of country code conversions
+   */
+  default Set<CountryCode> fromValue(String value, Standard from, Standard to) {
+    String trimmed = value == null ? "" : value.trim();
+    if (!trimmed.isEmpty() && trimmed.chars().allMatch(Character::isDigit)) {
+      return fromNumeric(value, from, to);
+    }
+    if (trimmed.length() == 3) {
+      return fromAlpha3(value, from, to);
+    }
+    return fromAlpha2(value, from, to);
+  }
+
+  /**
+   * Takes a value in any format of the {@code from} standard and converts to the corresponding
+   * country code in the {@code to} standard. Unlike the {@code String} methods, this accepts any
+   * character sequence, such as a reused {@link StringBuilder} or a view over a decode buffer, so
+   * implementations that can look values up without building a {@code String} may do so.
+   *
+   * <p>The default implementation converts the value to a {@code String}.
+   *
+   * @param value the identifier of the country code to convert
+   * @param from the standard which has a country code with the {@code value}
+   * @param to the standard to map to
+   * @return a set of country code conversions
+   */
+  default Set<CountryCode> fromValue(CharSequence value, Standard from, Standard to) {
+    return fromValue(value == null ? null : value.toString(), from, to);
+  }
+
+  /**
+   * Takes a UTF-8 encoded value in any format of the {@code from} standard, such as a field of a
+   * serialized record, and converts to the corresponding country code in the {@code to} standard.
+   *
+   * <p>The default implementation decodes the value to a {@code String}.
+   *
+   * @param value the array holding the encoded identifier of the country code to convert, cannot
+   *     be null
+   * @param offset the index of the first byte of the identifier
+   * @param length the number of bytes of the identifier
+   * @param from the standard which has a country code with the value
+   * @param to the standard to map to
+   * @return a set of country code conversions
+   * @throws IndexOutOfBoundsException if the identifier is not within the array
+   */
+  default Set<CountryCode> fromValue(
+      byte[] value, int offset, int length, Standard from, Standard to) {
+    return fromValue(new String(value, offset, length, StandardCharsets.UTF_8), from, to);
+  }
+
+  /**
+   * Takes a UTF-8 encoded value in any format of the {@code from} standard and converts to the
+   * corresponding country code in the {@code to} standard. The value is read with absolute gets,
+   * so the position and limit of the buffer are left unchanged.
+   *
+   * <p>The default implementation decodes the value to a {@code String}.
+   *
+   * @param value the buffer holding the encoded identifier of the country code to convert, cannot
+   *     be null
+   * @param offset the index in the buffer of the first byte of the identifier
+   * @param length the number of bytes of the identifier
+   * @param from the standard which has a country code with the value
+   * @param to the standard to map to
+   * @return a set of country code conversions
+   * @throws IndexOutOfBoundsException if the identifier is not within the limit of the buffer
+   */
+  default Set<CountryCode> fromValue(
+      ByteBuffer value, int offset, int length, Standard from, Standard to) {
+    if (offset < 0 || length < 0 || offset > value.limit() - length) {
+      throw new IndexOutOfBoundsException(
+          String.format(
+              "Value at offset [%d] of length [%d] is out of bounds for size [%d].",
+              offset, length, value.limit()));
+    }
+
+    byte[] bytes = new byte[length];
+    for (int i = 0; i < length; i++) {
+      bytes[i] = value.get(offset + i);
+    }
+    return fromValue(bytes, 0, length, from, to);
+  }
+
+  /**
+   * Takes a value in any format of the {@code from} standard and converts to the single
+   * corresponding country code in the {@code to} standard. Nearly every value maps to exactly one
+   * code, so this spares callers from unwrapping a set; a value that maps to several codes is
+   * reported as an error rather than resolved arbitrarily. Callers converting values that may map
+   * to several codes, such as codes of a standard that was split into several countries, should use
+   * {@link #fromValue(CharSequence, Standard, Standard)} instead and handle every code it returns.
+   *
+   * <p>The default implementation unwraps the result of {@link #fromValue(CharSequence, Standard,
+   * Standard)}.
+   *
+   * @param value the identifier of the country code to convert
+   * @param from the standard which has a country code with the {@code value}
+   * @param to the standard to map to
+   * @return the country code conversion, or an empty optional if there is none
+   * @throws IllegalStateException if the value converts to more than one country code
+   */
+  default Optional<CountryCode> convertOne(CharSequence value, Standard from, Standard to) {
+    Set<CountryCode> countryCodes = fromValue(value, from, to);
+    if (countryCodes.size() > 1) {
+      throw new IllegalStateException(
+          String.format(
+              "Value [%s] of standard [%s %s] converts to [%d] country codes of standard [%s %s].",
+              value,
+              from.getName(),
+              from.getVersion(),
+              countryCodes.size(),
+              to.getName(),
+              to.getVersion()));
+    }
+    return countryCodes.stream().findFirst();
+  }
+
+  /**
+   * Converts a batch of values identifying country codes in the {@code from} standard to the
+   * corresponding country codes in the {@code to} standard. The conversions of {@code values[i]}
+   * are written to {@code results[i]}. Each value may be in any format of the {@code from}
+   * standard.
+   *
+   * <p>The default implementation converts the values one at a time with {@link
+   * #fromValue(String, Standard, Standard)}.
+   *
+   * @param values the identifiers of the country codes to convert
+   * @param from the standard which has the country codes identified by {@code values}
+   * @param to the standard to map to
+   * @param results array receiving the conversions of each value, must be at least as long as
+   *     {@code values}
+   */
+  default void convert(String[] values, Standard from, Standard to, Set<CountryCode>[] results) {
+    if (results.length < values.length) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Results array of length [%d] cannot hold [%d] values.",
+              results.length, values.length));
+    }
+
+    for (int i = 0; i < values.length; i++) {
+      results[i] = fromValue(values[i], from, to);
+    }
+  }
+
+  /**
+   * Converts a batch of values identifying country codes in the {@code from} standard to the
+   * corresponding country codes in the {@code to} standard. Each value may be in any format of the
+   * {@code from} standard.
+   *
+   * <p>The default implementation converts the values one at a time with {@link
+   * #fromValue(String, Standard, Standard)}.
+   *
+   * @param values the identifiers of the country codes to convert
+   * @param from the standard which has the country codes identified by {@code values}
+   * @param to the standard to map to
+   * @return the conversions of each value, in the order of {@code values}
+   */
+  default List<Set<CountryCode>> convert(List<String> values, Standard from, Standard to) {
+    List<Set<CountryCode>> results = new ArrayList<>(values.size());
+    for (String value : values) {
+      results.add(fromValue(value, from, to));
+    }
+    return results;
+  }
+
+  /**
+   * Lazily converts a stream of values identifying country codes in the {@code from} standard to
+   * the corresponding country codes in the {@code to} standard. Each value may be in any format of
+   * the {@code from} standard.
+   *
+   * <p>The default implementation converts the values one at a time with {@link
+   * #fromValue(String, Standard, Standard)}.
+   *
+   * @param values the identifiers of the country codes to convert
+   * @param from the standard which has the country codes identified by {@code values}
+   * @param to the standard to map to
+   * @param parallel whether the returned stream should be parallel
+   * @return a stream of the conversions of each value, in encounter order of {@code values}
+   */
+  default Stream<Set<CountryCode>> convert(
+      Stream<String> values, Standard from, Standard to, boolean parallel) {
+    Stream<String> source = parallel ? values.parallel() : values.sequential();
+    return source.map(value -> fromValue(value, from, to));
+  }
+
+  /**
+   * Lazily converts the values of an iterator identifying country codes in the {@code from}
+   * standard to the corresponding country codes in the {@code to} standard. Each value may be in
+   * any format of the {@code from} standard.
+   *
+   * <p>The default implementation converts the values one at a time with {@link
+   * #fromValue(String, Standard, Standard)}.
+   *
+   * @param values the identifiers of the country codes to convert
+   * @param from the standard which has the country codes identified by {@code values}
+   * @param to the standard to map to
+   * @param parallel whether the returned stream should be parallel
+   * @return a stream of the conversions of each value, in the order of {@code values}
+   */
+  default Stream<Set<CountryCode>> convert(
+      Iterator<String> values, Standard from, Standard to, boolean parallel) {
+    return convert(
+        StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(values, Spliterator.ORDERED), parallel),
+        from,
+        to,
+        parallel);
+  }
+
   Set<Standard> getSupportedStandards();
 
   Standard getSystemDefaultStandard();
@@ -34,4 +34,38 @@ public interface MappingStrategy {
   Set<Standard> getMappedStandards();
 
   Set<CountryCode> getMappingFor(Standard standard, String value);
+
+  /**
+   * Returns the mappings currently in use. Strategies whose mappings never change return
+   * themselves; strategies that replace their mappings at runtime return a strategy holding the
+   * current mappings, so callers that precompute from the mappings can tell when they have changed.
+   *
+   * @return a strategy whose mappings do not change
+   */
+  default MappingStrategy getCurrentStrategy() {
+    return this;
+  }
+
+  /**
+   * Looks up the mappings for a batch of values of the same standard. The result for {@code
+   * values[i]} is written to {@code results[i]} and is the same as calling {@link
+   * #getMappingFor(Standard, String)} with that value.
+   *
+   * @param standard the standard of the country codes identified by {@code values}
+   * @param values the values identifying the country codes to look up
+   * @param results array receiving the mapping of each value, must be at least as long as {@code
+   *     values}
+   */
+  default void getMappingsFor(Standard standard, String[] values, Set<CountryCode>[] results) {
+    if (results.length < values.length) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Results array of length [%d] cannot hold [%d] values.",
+              results.length, values.length));
+    }
+
+    for (int i = 0; i < values.length; i++) {
+      results[i] = getMappingFor(standard, values[i]);
+    }
+  }
 }
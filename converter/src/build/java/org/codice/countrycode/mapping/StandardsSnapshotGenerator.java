@@ -0,0 +1,53 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.countrycode.mapping;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import org.codice.countrycode.standard.StandardRegistryImpl;
+import org.codice.countrycode.standards.common.StandardsSnapshot;
+
+/**
+ * Build-time tool that parses the default mapping file and the data files of the standards it maps,
+ * and writes them as a {@link StandardsSnapshot}. The build compiles and runs it right after the
+ * main classes, whether or not tests are skipped, so the snapshot is packaged with the classes and
+ * {@link CsvMappingStrategy#CsvMappingStrategy()} can load it instead of parsing. It lives in its
+ * own source directory so that it is not shipped.
+ */
+public final class StandardsSnapshotGenerator {
+
+  private StandardsSnapshotGenerator() {}
+
+  /** @param args the path of the snapshot file to write */
+  public static void main(String[] args) throws IOException {
+    if (args.length != 1) {
+      throw new IllegalArgumentException("Usage: StandardsSnapshotGenerator <snapshot file>");
+    }
+
+    CsvMappingStrategy mappingStrategy =
+        new CsvMappingStrategy(
+            CsvMappingStrategy.DEFAULT_FILE_PATH, StandardRegistryImpl.getInstance());
+
+    Path snapshotFile = Paths.get(args[0]).toAbsolutePath();
+    Files.createDirectories(snapshotFile.getParent());
+    try (OutputStream outputStream =
+        new BufferedOutputStream(Files.newOutputStream(snapshotFile))) {
+      mappingStrategy.writeSnapshot(outputStream);
+    }
+  }
+}
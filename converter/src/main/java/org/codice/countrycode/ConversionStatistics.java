@@ -0,0 +1,219 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.countrycode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.codice.countrycode.metrics.CountryCodeMetrics;
+import org.codice.countrycode.metrics.Metrics;
+import org.codice.countrycode.standard.Standard;
+import org.codice.countrycode.standards.common.StandardUtils;
+
+/**
+ * {@link CountryCodeMetrics} that keeps running totals of the conversions between each pair of
+ * standards: how many values were converted, how many of them had a conversion (hits) and how many
+ * did not (misses), and the time taken. Install it with {@link Metrics#setMetrics} to see how
+ * traffic is spread over the standards and how much of it is unmapped. Totals are kept in {@link
+ * LongAdder}s, so conversions on many threads do not contend on them.
+ */
+public final class ConversionStatistics implements CountryCodeMetrics {
+
+  private final ConcurrentMap<StandardPair, PairCounters> counters = new ConcurrentHashMap<>();
+
+  @Override
+  public void recordConversions(
+      Standard from, Standard to, int count, int emptyCount, long durationNanos) {
+    StandardPair pair = new StandardPair(from, to);
+    PairCounters pairCounters = counters.get(pair);
+    if (pairCounters == null) {
+      PairCounters newCounters = new PairCounters(pair);
+      pairCounters = counters.putIfAbsent(pair, newCounters);
+      if (pairCounters == null) {
+        pairCounters = newCounters;
+      }
+    }
+    pairCounters.add(count, emptyCount, durationNanos);
+  }
+
+  /** @return the totals of each pair of standards that values were converted between */
+  public List<Statistics> getStatistics() {
+    List<Statistics> statistics = new ArrayList<>(counters.size());
+    for (PairCounters pairCounters : counters.values()) {
+      statistics.add(pairCounters.toStatistics());
+    }
+    return statistics;
+  }
+
+  /**
+   * Returns the totals of the conversions from one standard to another. Conversions between
+   * standards with the same names and versions are added up, whichever instances they were made
+   * with.
+   *
+   * @return the totals, which are all zero if no values were converted between the standards
+   */
+  public Statistics getStatistics(Standard from, Standard to) {
+    long count = 0;
+    long missCount = 0;
+    long totalNanos = 0;
+    for (Map.Entry<StandardPair, PairCounters> entry : counters.entrySet()) {
+      StandardPair pair = entry.getKey();
+      if (StandardUtils.equalStandards(pair.from, from)
+          && StandardUtils.equalStandards(pair.to, to)) {
+        Statistics statistics = entry.getValue().toStatistics();
+        count += statistics.count;
+        missCount += statistics.missCount;
+        totalNanos += statistics.totalNanos;
+      }
+    }
+    return new Statistics(from, to, count, missCount, totalNanos);
+  }
+
+  /** Forgets every recorded conversion. */
+  public void reset() {
+    counters.clear();
+  }
+
+  /** Totals of the conversions from one standard to another. */
+  public static final class Statistics {
+
+    private final Standard from;
+
+    private final Standard to;
+
+    private final long count;
+
+    private final long missCount;
+
+    private final long totalNanos;
+
+    Statistics(Standard from, Standard to, long count, long missCount, long totalNanos) {
+      this.from = from;
+      this.to = to;
+      this.count = count;
+      this.missCount = missCount;
+      this.totalNanos = totalNanos;
+    }
+
+    /** @return the standard the values were converted from */
+    public Standard getFrom() {
+      return from;
+    }
+
+    /** @return the standard the values were converted to */
+    public Standard getTo() {
+      return to;
+    }
+
+    /** @return the number of values converted */
+    public long getCount() {
+      return count;
+    }
+
+    /** @return the number of values that had a conversion */
+    public long getHitCount() {
+      return count - missCount;
+    }
+
+    /** @return the number of values that had no conversion */
+    public long getMissCount() {
+      return missCount;
+    }
+
+    /** @return the share of the values that had a conversion, or 0 if none were converted */
+    public double getHitRate() {
+      return count == 0 ? 0 : (double) getHitCount() / count;
+    }
+
+    /** @return the total time taken to convert the values */
+    public long getTotalNanos() {
+      return totalNanos;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "Statistics{from=%s %s, to=%s %s, count=%d, hits=%d, misses=%d, totalNanos=%d}",
+          from.getName(),
+          from.getVersion(),
+          to.getName(),
+          to.getVersion(),
+          count,
+          getHitCount(),
+          missCount,
+          totalNanos);
+    }
+  }
+
+  /**
+   * A pair of standards, told apart by identity: converters report the standard instances they
+   * were called with, so this keeps recording free of any case-insensitive comparison.
+   */
+  private static final class StandardPair {
+
+    private final Standard from;
+
+    private final Standard to;
+
+    StandardPair(Standard from, Standard to) {
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof StandardPair)) {
+        return false;
+      }
+      StandardPair other = (StandardPair) o;
+      return from == other.from && to == other.to;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * System.identityHashCode(from) + System.identityHashCode(to);
+    }
+  }
+
+  private static final class PairCounters {
+
+    private final StandardPair pair;
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    private final LongAdder totalNanos = new LongAdder();
+
+    PairCounters(StandardPair pair) {
+      this.pair = pair;
+    }
+
+    void add(int count, int emptyCount, long durationNanos) {
+      this.count.add(count);
+      missCount.add(emptyCount);
+      totalNanos.add(durationNanos);
+    }
+
+    Statistics toStatistics() {
+      return new Statistics(pair.from, pair.to, count.sum(), missCount.sum(), totalNanos.sum());
+    }
+  }
+}
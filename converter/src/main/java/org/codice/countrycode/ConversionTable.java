@@ -0,0 +1,321 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.countrycode;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.codice.countrycode.converter.MappingStrategy;
+import org.codice.countrycode.mapping.IndexedMappingStrategy;
+import org.codice.countrycode.standard.CountryCode;
+import org.codice.countrycode.standard.Standard;
+import org.codice.countrycode.standards.common.NormalizedKey;
+import org.codice.countrycode.standards.common.NormalizedKeyMap;
+import org.codice.countrycode.standards.common.StandardUtils;
+
+/**
+ * Dense from/to translation table built once from the mappings of a {@link MappingStrategy}. There
+ * is one value map per ordered pair of mapped standards, keyed by the {@link NormalizedKey
+ * normalized} format values of the codes in the {@code from} standard and holding the shared,
+ * immutable set of mapped codes in the {@code to} standard. The map for a standard paired with
+ * itself is an identity index of that standard's mapped codes.
+ *
+ * <p>An {@link IndexedMappingStrategy} already has an index of its own, so a table for one holds no
+ * maps and passes each lookup on to the strategy instead.
+ */
+final class ConversionTable {
+
+  private final Standard[] standards;
+
+  private final List<PairTable> tables;
+
+  /** @return a table over the mappings of the strategy */
+  static ConversionTable of(MappingStrategy strategy) {
+    if (strategy instanceof IndexedMappingStrategy) {
+      return new ConversionTable((IndexedMappingStrategy) strategy);
+    }
+    return new ConversionTable(strategy.getMappedStandards(), strategy.getMappings());
+  }
+
+  private ConversionTable(IndexedMappingStrategy strategy) {
+    standards = strategy.getMappedStandards().toArray(new Standard[0]);
+
+    ImmutableList.Builder<PairTable> tablesBuilder = ImmutableList.builder();
+    for (Standard from : standards) {
+      for (Standard to : standards) {
+        tablesBuilder.add(new IndexedPairTable(strategy, from, to));
+      }
+    }
+    tables = tablesBuilder.build();
+  }
+
+  ConversionTable(Collection<Standard> mappedStandards, Collection<Set<CountryCode>> mappings) {
+    standards = mappedStandards.toArray(new Standard[0]);
+
+    int size = standards.length;
+    List<Map<String, Set<CountryCode>>> builders = new ArrayList<>(size * size);
+    for (int i = 0; i < size * size; i++) {
+      builders.add(new HashMap<>());
+    }
+
+    for (int from = 0; from < size; from++) {
+      builders.set(from * size + from, identityIndex(from, mappings));
+
+      Map<Set<CountryCode>, Set<CountryCode>[]> targetsByMapping = new IdentityHashMap<>();
+      for (Map.Entry<String, Set<CountryCode>> entry : firstMappings(from, mappings).entrySet()) {
+        Set<CountryCode>[] targets =
+            targetsByMapping.computeIfAbsent(entry.getValue(), this::targetsByStandard);
+        for (int to = 0; to < size; to++) {
+          if (to != from && !targets[to].isEmpty()) {
+            builders.get(from * size + to).put(entry.getKey(), targets[to]);
+          }
+        }
+      }
+    }
+
+    ImmutableList.Builder<PairTable> tablesBuilder = ImmutableList.builder();
+    for (Map<String, Set<CountryCode>> builder : builders) {
+      tablesBuilder.add(new PairTable(builder));
+    }
+    tables = tablesBuilder.build();
+  }
+
+  /**
+   * Resolves the table for converting from one standard to another. Values are looked up in the
+   * table ignoring case and surrounding whitespace, and a batch of values can be converted without
+   * matching the standards again for every value.
+   *
+   * @return the table for the standards, or an empty table if either standard is not mapped
+   */
+  PairTable lookup(Standard from, Standard to) {
+    int fromIndex = indexOf(from);
+    int toIndex = indexOf(to);
+    if (fromIndex < 0 || toIndex < 0) {
+      return PairTable.EMPTY;
+    }
+
+    return tables.get(fromIndex * standards.length + toIndex);
+  }
+
+  private int indexOf(Standard standard) {
+    // callers usually pass the same standard instances the mappings were built from
+    for (int i = 0; i < standards.length; i++) {
+      if (standards[i] == standard) {
+        return i;
+      }
+    }
+    for (int i = 0; i < standards.length; i++) {
+      if (StandardUtils.equalStandards(standards[i], standard)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /** Maps each format value of the standard to all of its mapped codes having that value. */
+  private Map<String, Set<CountryCode>> identityIndex(
+      int standard, Collection<Set<CountryCode>> mappings) {
+    Map<String, ImmutableSet.Builder<CountryCode>> builders = new HashMap<>();
+    for (Set<CountryCode> mapping : mappings) {
+      for (CountryCode countryCode : mapping) {
+        if (indexOf(countryCode.getStandard()) != standard) {
+          continue;
+        }
+
+        for (String formatName : countryCode.getStandard().getFormatNames()) {
+          String formatValue = countryCode.getAsFormat(formatName);
+          if (formatValue != null) {
+            builders
+                .computeIfAbsent(normalize(formatValue), key -> ImmutableSet.builder())
+                .add(countryCode);
+          }
+        }
+      }
+    }
+
+    Map<String, Set<CountryCode>> identityIndex = new HashMap<>();
+    builders.forEach((key, builder) -> identityIndex.put(key, builder.build()));
+    return identityIndex;
+  }
+
+  /** Maps each format value of the {@code from} standard to the first mapping containing it. */
+  private Map<String, Set<CountryCode>> firstMappings(
+      int from, Collection<Set<CountryCode>> mappings) {
+    Map<String, Set<CountryCode>> firstMappings = new LinkedHashMap<>();
+    for (Set<CountryCode> mapping : mappings) {
+      for (CountryCode countryCode : mapping) {
+        Standard standard = countryCode.getStandard();
+        if (indexOf(standard) != from) {
+          continue;
+        }
+
+        for (String formatName : standard.getFormatNames()) {
+          String formatValue = countryCode.getAsFormat(formatName);
+          if (formatValue != null) {
+            firstMappings.putIfAbsent(normalize(formatValue), mapping);
+          }
+        }
+      }
+    }
+    return firstMappings;
+  }
+
+  @SuppressWarnings("unchecked")
+  private Set<CountryCode>[] targetsByStandard(Set<CountryCode> mapping) {
+    ImmutableSet.Builder<CountryCode>[] builders = new ImmutableSet.Builder[standards.length];
+    for (int i = 0; i < builders.length; i++) {
+      builders[i] = ImmutableSet.builder();
+    }
+
+    for (CountryCode countryCode : mapping) {
+      int index = indexOf(countryCode.getStandard());
+      if (index >= 0) {
+        builders[index].add(countryCode);
+      }
+    }
+
+    Set<CountryCode>[] targets = new Set[builders.length];
+    for (int i = 0; i < builders.length; i++) {
+      targets[i] = builders[i].build();
+    }
+    return targets;
+  }
+
+  private static String normalize(String value) {
+    return NormalizedKey.normalize(value);
+  }
+
+  /** Conversions from one standard to another, keyed by the normalized source format values. */
+  static class PairTable {
+
+    private static final PairTable EMPTY = new PairTable(Collections.emptyMap());
+
+    private final NormalizedKeyMap<Targets> conversions;
+
+    private PairTable(Map<String, Set<CountryCode>> conversions) {
+      Map<Set<CountryCode>, Targets> targetsBySet = new IdentityHashMap<>();
+      Map<String, Targets> targets = new HashMap<>();
+      conversions.forEach(
+          (value, countryCodes) ->
+              targets.put(value, targetsBySet.computeIfAbsent(countryCodes, Targets::new)));
+      this.conversions = new NormalizedKeyMap<>(targets);
+    }
+
+    /** @return the shared set of mapped codes, or an empty set if there are none */
+    Set<CountryCode> convert(CharSequence value) {
+      return codesOf(conversions.get(value));
+    }
+
+    /** @return the shared set of mapped codes, or an empty set if there are none */
+    Set<CountryCode> convert(byte[] value, int offset, int length) {
+      return codesOf(conversions.get(value, offset, length));
+    }
+
+    /** @return the shared set of mapped codes, or an empty set if there are none */
+    Set<CountryCode> convert(ByteBuffer value, int offset, int length) {
+      return codesOf(conversions.get(value, offset, length));
+    }
+
+    /** @return the mapped codes, which are empty if there are none */
+    Targets targets(CharSequence value) {
+      Targets targets = conversions.get(value);
+      return targets == null ? Targets.NONE : targets;
+    }
+
+    private static Set<CountryCode> codesOf(Targets targets) {
+      return targets == null ? ImmutableSet.of() : targets.countryCodes;
+    }
+  }
+
+  /** Conversions looked up in the index of an {@link IndexedMappingStrategy}. */
+  private static final class IndexedPairTable extends PairTable {
+
+    private final IndexedMappingStrategy strategy;
+
+    private final Standard from;
+
+    private final Standard to;
+
+    IndexedPairTable(IndexedMappingStrategy strategy, Standard from, Standard to) {
+      super(Collections.emptyMap());
+      this.strategy = strategy;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    Set<CountryCode> convert(CharSequence value) {
+      return value == null ? ImmutableSet.of() : strategy.getMappingFor(from, value, to);
+    }
+
+    @Override
+    Set<CountryCode> convert(byte[] value, int offset, int length) {
+      return convert(NormalizedKey.normalize(value, offset, length));
+    }
+
+    @Override
+    Set<CountryCode> convert(ByteBuffer value, int offset, int length) {
+      return convert(NormalizedKey.normalize(value, offset, length));
+    }
+
+    @Override
+    Targets targets(CharSequence value) {
+      Set<CountryCode> countryCodes = convert(value);
+      return countryCodes.isEmpty() ? Targets.NONE : new Targets(countryCodes);
+    }
+  }
+
+  /** The codes a value converts to, along with the only one of them for single conversions. */
+  static final class Targets {
+
+    private static final Targets NONE = new Targets(ImmutableSet.of());
+
+    private final Set<CountryCode> countryCodes;
+
+    private final Optional<CountryCode> onlyCode;
+
+    Targets(Set<CountryCode> countryCodes) {
+      this.countryCodes = countryCodes;
+      onlyCode = countryCodes.size() == 1 ? countryCodes.stream().findFirst() : Optional.empty();
+    }
+
+    /** @return true if there are several codes, so that there is no only code */
+    boolean isAmbiguous() {
+      return countryCodes.size() > 1;
+    }
+
+    /**
+     * @return the only code, or an empty optional if there is none or if the codes are {@link
+     *     #isAmbiguous() ambiguous}
+     */
+    Optional<CountryCode> getOnlyCode() {
+      return onlyCode;
+    }
+
+    /** @return the number of codes */
+    int getCount() {
+      return countryCodes.size();
+    }
+  }
+}
@@ -13,22 +13,41 @@
  */
 package org.codice.countrycode;
 
-import com.google.common.collect.ImmutableSet;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.apache.commons.lang3.Validate;
+import org.codice.countrycode.ConversionTable.PairTable;
+import org.codice.countrycode.ConversionTable.Targets;
 import org.codice.countrycode.converter.Converter;
 import org.codice.countrycode.converter.MappingStrategy;
 import org.codice.countrycode.mapping.CsvMappingStrategy;
+import org.codice.countrycode.mapping.MissTracker;
+import org.codice.countrycode.metrics.CountryCodeMetrics;
+import org.codice.countrycode.metrics.Metrics;
 import org.codice.countrycode.standard.CountryCode;
 import org.codice.countrycode.standard.Standard;
+import org.codice.countrycode.standards.common.NormalizedKey;
 import org.codice.countrycode.standards.common.StandardUtils;
 import org.codice.countrycode.standards.iso.Iso3166Standard;
 
 public class CountryCodeConverter implements Converter {
 
+  /** Batches at least this large are converted in parallel. */
+  private static final int PARALLEL_BATCH_SIZE = 10_000;
+
   private final Standard defaultStandard;
 
-  private MappingStrategy mappingStrategy;
+  private final MappingStrategy mappingStrategy;
+
+  /** Conversion table of the mappings currently in use, rebuilt when they are replaced. */
+  private volatile TableState tableState;
+
+  private final Object tableLock = new Object();
 
   public CountryCodeConverter() {
     this(new Iso3166Standard());
@@ -48,6 +67,8 @@ public class CountryCodeConverter implements Converter {
               "Provided default standard [%s %s] not supported by default CsvMappingStrategy.",
               defaultStandard.getName(), defaultStandard.getVersion()));
     }
+
+    tableState = new TableState(getCurrentStrategy());
   }
 
   private boolean mappingStrategyMapsStandard(Standard defaultStandard) {
@@ -74,6 +95,114 @@ public class CountryCodeConverter implements Converter {
     return fromProperty(numeric, from, to);
   }
 
+  @Override
+  public Set<CountryCode> fromValue(String value, Standard from, Standard to) {
+    return fromValue((CharSequence) value, from, to);
+  }
+
+  @Override
+  public Set<CountryCode> fromValue(CharSequence value, Standard from, Standard to) {
+    CountryCodeMetrics metrics = Metrics.getMetrics();
+    long start = startTime(metrics);
+    Set<CountryCode> countryCodes = conversionTable().lookup(from, to).convert(value);
+    recordConversion(metrics, from, to, countryCodes, start);
+    if (countryCodes.isEmpty() && value != null) {
+      recordMiss(from, value);
+    }
+    return countryCodes;
+  }
+
+  @Override
+  public Set<CountryCode> fromValue(
+      byte[] value, int offset, int length, Standard from, Standard to) {
+    CountryCodeMetrics metrics = Metrics.getMetrics();
+    long start = startTime(metrics);
+    Set<CountryCode> countryCodes =
+        conversionTable().lookup(from, to).convert(value, offset, length);
+    recordConversion(metrics, from, to, countryCodes, start);
+    if (countryCodes.isEmpty() && missTracker() != null) {
+      recordMiss(from, NormalizedKey.normalize(value, offset, length));
+    }
+    return countryCodes;
+  }
+
+  @Override
+  public Set<CountryCode> fromValue(
+      ByteBuffer value, int offset, int length, Standard from, Standard to) {
+    CountryCodeMetrics metrics = Metrics.getMetrics();
+    long start = startTime(metrics);
+    Set<CountryCode> countryCodes =
+        conversionTable().lookup(from, to).convert(value, offset, length);
+    recordConversion(metrics, from, to, countryCodes, start);
+    if (countryCodes.isEmpty() && missTracker() != null) {
+      recordMiss(from, NormalizedKey.normalize(value, offset, length));
+    }
+    return countryCodes;
+  }
+
+  @Override
+  public Optional<CountryCode> convertOne(CharSequence value, Standard from, Standard to) {
+    CountryCodeMetrics metrics = Metrics.getMetrics();
+    long start = startTime(metrics);
+    Targets targets = conversionTable().lookup(from, to).targets(value);
+    if (targets.isAmbiguous()) {
+      throw new IllegalStateException(
+          String.format(
+              "Value [%s] of standard [%s %s] converts to [%d] country codes of standard [%s %s].",
+              value,
+              from.getName(),
+              from.getVersion(),
+              targets.getCount(),
+              to.getName(),
+              to.getVersion()));
+    }
+
+    Optional<CountryCode> countryCode = targets.getOnlyCode();
+    if (metrics != CountryCodeMetrics.NOOP) {
+      recordConversions(
+          metrics, from, to, 1, countryCode.isPresent() ? 0 : 1, System.nanoTime() - start);
+    }
+    if (!countryCode.isPresent() && value != null) {
+      recordMiss(from, value);
+    }
+    return countryCode;
+  }
+
+  @Override
+  public void convert(String[] values, Standard from, Standard to, Set<CountryCode>[] results) {
+    Validate.isTrue(
+        results.length >= values.length,
+        "Results array of length [%d] cannot hold [%d] values.",
+        results.length,
+        values.length);
+    convertBatch(values, from, to, results);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public List<Set<CountryCode>> convert(List<String> values, Standard from, Standard to) {
+    String[] valuesArray = values.toArray(new String[0]);
+    Set<CountryCode>[] results = new Set[valuesArray.length];
+    convertBatch(valuesArray, from, to, results);
+    return Arrays.asList(results);
+  }
+
+  @Override
+  public Stream<Set<CountryCode>> convert(
+      Stream<String> values, Standard from, Standard to, boolean parallel) {
+    PairTable pairTable = conversionTable().lookup(from, to);
+    Stream<String> source = parallel ? values.parallel() : values.sequential();
+    if (Metrics.getMetrics() == CountryCodeMetrics.NOOP && missTracker() == null) {
+      return source.map(pairTable::convert);
+    }
+    return source.map(value -> convertRecorded(pairTable, value, from, to));
+  }
+
+  /** @return the mapping strategy conversions are looked up in */
+  public MappingStrategy getMappingStrategy() {
+    return mappingStrategy;
+  }
+
   @Override
   public Set<Standard> getSupportedStandards() {
     return mappingStrategy.getMappedStandards();
@@ -84,27 +213,168 @@ public class CountryCodeConverter implements Converter {
     return defaultStandard;
   }
 
-  private Set<CountryCode> fromProperty(String propertyValue, Standard from, Standard to) {
-    if (StandardUtils.equalStandards(from, to)) {
-      Set<CountryCode> fromCountryCodes =
-          mappingStrategy
-              .getMappings()
-              .stream()
-              .flatMap(Set::stream)
-              .filter(
-                  cc ->
-                      StandardUtils.hasStandard(cc, from)
-                          && StandardUtils.containsFormatValue(cc, propertyValue))
-              .collect(Collectors.toSet());
-
-      return ImmutableSet.copyOf(fromCountryCodes);
-    }
-
-    Set<CountryCode> mappings = mappingStrategy.getMappingFor(from, propertyValue);
-    return ImmutableSet.copyOf(
-        mappings
-            .stream()
-            .filter(cc -> StandardUtils.hasStandard(cc, to))
-            .collect(Collectors.toSet()));
+  /** Converts a value in any format of the {@code from} standard. */
+  Set<CountryCode> fromProperty(String propertyValue, Standard from, Standard to) {
+    return fromValue(propertyValue, from, to);
+  }
+
+  private Set<CountryCode> convertRecorded(
+      PairTable pairTable, String value, Standard from, Standard to) {
+    CountryCodeMetrics metrics = Metrics.getMetrics();
+    long start = startTime(metrics);
+    Set<CountryCode> countryCodes = pairTable.convert(value);
+    recordConversion(metrics, from, to, countryCodes, start);
+    if (countryCodes.isEmpty() && value != null) {
+      recordMiss(from, value);
+    }
+    return countryCodes;
+  }
+
+  /**
+   * @return the time a conversion reported to the metrics starts at, or 0 if conversions are not
+   *     measured
+   */
+  private static long startTime(CountryCodeMetrics metrics) {
+    return metrics == CountryCodeMetrics.NOOP ? 0 : System.nanoTime();
+  }
+
+  /**
+   * Reports a conversion to the same metrics its {@link #startTime(CountryCodeMetrics) start} was
+   * taken for, so metrics installed mid-conversion never see a duration measured from 0.
+   */
+  private static void recordConversion(
+      CountryCodeMetrics metrics,
+      Standard from,
+      Standard to,
+      Set<CountryCode> countryCodes,
+      long start) {
+    if (metrics != CountryCodeMetrics.NOOP) {
+      recordConversions(
+          metrics, from, to, 1, countryCodes.isEmpty() ? 1 : 0, System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * Reports conversions to the metrics. The conversion table stands in for looking the values up
+   * in the mappings of the {@code from} standard, so they are reported as mapping lookups too,
+   * with the values that have no conversion as misses.
+   */
+  private static void recordConversions(
+      CountryCodeMetrics metrics,
+      Standard from,
+      Standard to,
+      int count,
+      int emptyCount,
+      long durationNanos) {
+    metrics.recordConversions(from, to, count, emptyCount, durationNanos);
+    metrics.recordMappingLookups(from, count, emptyCount, durationNanos);
+  }
+
+  /**
+   * @return the tracker of the mappings currently in use, or null if they do not track the values
+   *     they have no mapping for
+   */
+  private MissTracker missTracker() {
+    MappingStrategy currentStrategy = getCurrentStrategy();
+    return currentStrategy instanceof CsvMappingStrategy
+        ? ((CsvMappingStrategy) currentStrategy).getMissTracker()
+        : null;
+  }
+
+  /** Counts a value without a conversion as a miss of the mappings, if they track misses. */
+  private void recordMiss(Standard from, CharSequence value) {
+    MissTracker tracker = missTracker();
+    if (tracker != null) {
+      tracker.record(from, value.toString());
+    }
+  }
+
+  /** @return the strategy holding the mappings currently in use */
+  MappingStrategy getCurrentStrategy() {
+    MappingStrategy currentStrategy = mappingStrategy.getCurrentStrategy();
+    return currentStrategy == null ? mappingStrategy : currentStrategy;
+  }
+
+  /**
+   * Returns the conversion table of the mappings currently in use, rebuilding it first if the
+   * mapping strategy has replaced its mappings since the table was built.
+   */
+  private ConversionTable conversionTable() {
+    TableState state = tableState;
+    if (state.strategy != getCurrentStrategy()) {
+      state = rebuildTable();
+    }
+    return state.table;
+  }
+
+  /**
+   * Rebuilds the conversion table for the current mappings. Threads that find the table stale at
+   * the same time wait for the first of them to rebuild it rather than each building their own.
+   */
+  private TableState rebuildTable() {
+    synchronized (tableLock) {
+      TableState state = tableState;
+      MappingStrategy currentStrategy = getCurrentStrategy();
+      if (state.strategy != currentStrategy) {
+        state = new TableState(currentStrategy);
+        tableState = state;
+      }
+      return state;
+    }
+  }
+
+  private void convertBatch(
+      String[] values, Standard from, Standard to, Set<CountryCode>[] results) {
+    CountryCodeMetrics metrics = Metrics.getMetrics();
+    long start = metrics == CountryCodeMetrics.NOOP ? 0 : System.nanoTime();
+
+    PairTable pairTable = conversionTable().lookup(from, to);
+    if (values.length < PARALLEL_BATCH_SIZE) {
+      for (int i = 0; i < values.length; i++) {
+        results[i] = pairTable.convert(values[i]);
+      }
+    } else {
+      IntStream.range(0, values.length)
+          .parallel()
+          .forEach(i -> results[i] = pairTable.convert(values[i]));
+    }
+
+    if (metrics != CountryCodeMetrics.NOOP) {
+      long duration = System.nanoTime() - start;
+      int emptyCount = countEmpty(results, values.length);
+      recordConversions(metrics, from, to, values.length, emptyCount, duration);
+    }
+
+    MissTracker tracker = missTracker();
+    if (tracker != null) {
+      for (int i = 0; i < values.length; i++) {
+        if (results[i].isEmpty()) {
+          tracker.record(from, values[i]);
+        }
+      }
+    }
+  }
+
+  private static int countEmpty(Set<CountryCode>[] results, int length) {
+    int emptyCount = 0;
+    for (int i = 0; i < length; i++) {
+      if (results[i].isEmpty()) {
+        emptyCount++;
+      }
+    }
+    return emptyCount;
+  }
+
+  /** A conversion table together with the mappings it was built from. */
+  private static final class TableState {
+
+    private final MappingStrategy strategy;
+
+    private final ConversionTable table;
+
+    TableState(MappingStrategy strategy) {
+      this.strategy = strategy;
+      this.table = ConversionTable.of(strategy);
+    }
   }
 }
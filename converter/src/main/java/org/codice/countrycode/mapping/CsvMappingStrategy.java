@@ -19,22 +19,30 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 import org.codice.countrycode.converter.MappingStrategy;
+import org.codice.countrycode.metrics.CountryCodeMetrics;
+import org.codice.countrycode.metrics.Metrics;
 import org.codice.countrycode.standard.CountryCode;
 import org.codice.countrycode.standard.Standard;
 import org.codice.countrycode.standard.StandardProvider;
 import org.codice.countrycode.standard.StandardRegistry;
 import org.codice.countrycode.standard.StandardRegistryImpl;
 import org.codice.countrycode.standards.common.StandardUtils;
+import org.codice.countrycode.standards.common.StandardsSnapshot;
+import org.codice.countrycode.standards.common.StandardsSnapshot.MappedColumn;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -42,7 +50,10 @@ public class CsvMappingStrategy implements MappingStrategy {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(CsvMappingStrategy.class);
 
-  private static final String DEFAULT_FILE_PATH = "mappings.csv";
+  static final String DEFAULT_FILE_PATH = "mappings.csv";
+
+  /** Precompiled snapshot of the default mappings and standards, generated at build time. */
+  static final String SNAPSHOT_FILE_PATH = "standards.snapshot";
 
   private static final int CSV_STANDARD_LINE_START = 0;
 
@@ -50,9 +61,10 @@ public class CsvMappingStrategy implements MappingStrategy {
 
   private static final int CSV_MAPPINGS_LINE_START = 2;
 
-  private String fileName = DEFAULT_FILE_PATH;
+  /** Batches at least this large are looked up in parallel. */
+  private static final int PARALLEL_BATCH_SIZE = 10_000;
 
-  private InputStream inputStream;
+  private String fileName = DEFAULT_FILE_PATH;
 
   private final List<StandardPropertyPair> configStandardPropertyPairs;
 
@@ -60,8 +72,17 @@ public class CsvMappingStrategy implements MappingStrategy {
 
   private final StandardRegistry standardRegistry;
 
+  private final MappingIndex mappingIndex;
+
+  /** Counts values without a mapping when set; null while miss tracking is off. */
+  private volatile MissTracker missTracker;
+
+  /**
+   * Loads the default mappings from the precompiled standards snapshot, or parses the default
+   * mapping file if there is no usable snapshot on the classpath.
+   */
   public CsvMappingStrategy() {
-    this(DEFAULT_FILE_PATH);
+    this(DEFAULT_FILE_PATH, StandardRegistryImpl.getInstance(), SNAPSHOT_FILE_PATH, null, null);
   }
 
   public CsvMappingStrategy(String file) {
@@ -69,20 +90,92 @@ public class CsvMappingStrategy implements MappingStrategy {
   }
 
   public CsvMappingStrategy(String file, StandardRegistry standardRegistry) {
-    Validate.notEmpty(file, "argument [file] cannot be null or empty.");
+    this(file, standardRegistry, null);
+  }
+
+  /**
+   * Parses a mapping file from the file system rather than the classpath.
+   *
+   * @param file path of the mapping file, cannot be null
+   * @param standardRegistry registry of the standards named in the file
+   */
+  public CsvMappingStrategy(Path file, StandardRegistry standardRegistry) {
+    this(
+        Validate.notNull(file, "argument [file] cannot be null.").toString(),
+        standardRegistry,
+        null,
+        null,
+        openFile(file));
+  }
+
+  CsvMappingStrategy(String file, StandardRegistry standardRegistry, StandardsSnapshot snapshot) {
+    this(file, standardRegistry, null, snapshot, null);
+  }
+
+  /**
+   * Loads the mappings and reports how long that took, including reading the snapshot resource,
+   * under the name of whichever source they were loaded from.
+   *
+   * @param file the mapping file, parsed if no snapshot is given or can be read
+   * @param snapshotFile a snapshot resource to read the mappings from, or null
+   * @param snapshot a snapshot already read, or null
+   * @param fileStream the opened mapping file, or null to open it from the classpath if needed
+   */
+  private CsvMappingStrategy(
+      String file,
+      StandardRegistry standardRegistry,
+      String snapshotFile,
+      StandardsSnapshot snapshot,
+      InputStream fileStream) {
+    long start = System.nanoTime();
     configStandardPropertyPairs = new ArrayList<>();
     countryCodeMappings = new HashSet<>();
     this.standardRegistry = standardRegistry;
-
     fileName = file;
-    inputStream = this.getClass().getClassLoader().getResourceAsStream(file);
 
-    if (inputStream == null) {
+    String source = file;
+    StandardsSnapshot loadedSnapshot = snapshot;
+    if (loadedSnapshot == null && snapshotFile != null) {
+      loadedSnapshot = readSnapshot(snapshotFile, standardRegistry);
+      if (loadedSnapshot != null) {
+        source = snapshotFile;
+      }
+    }
+
+    if (loadedSnapshot == null) {
+      parseFile(file, fileStream == null ? openResource(file) : fileStream);
+    } else {
+      loadSnapshot(loadedSnapshot);
+    }
+
+    mappingIndex = new MappingIndex(countryCodeMappings);
+    Metrics.getMetrics().recordMappingLoad(source, System.nanoTime() - start);
+  }
+
+  private static InputStream openResource(String file) {
+    Validate.notEmpty(file, "argument [file] cannot be null or empty.");
+    InputStream resourceStream =
+        CsvMappingStrategy.class.getClassLoader().getResourceAsStream(file);
+
+    if (resourceStream == null) {
       LOGGER.debug("Unable to get file for [{}].", file);
       throw new IllegalArgumentException(String.format("Unable to get file for [%s]", file));
     }
 
-    List<String> lines = getFileLines();
+    return resourceStream;
+  }
+
+  private static InputStream openFile(Path file) {
+    try {
+      return Files.newInputStream(file);
+    } catch (IOException e) {
+      LOGGER.debug("Unable to get file for [{}].", file, e);
+      throw new IllegalArgumentException(String.format("Unable to get file for [%s]", file), e);
+    }
+  }
+
+  private void parseFile(String file, InputStream fileStream) {
+    List<String> lines = getFileLines(fileStream);
     if (!parseConfigStandardsAndMappingProperties(
         lines.subList(CSV_STANDARD_LINE_START, CSV_STANDARD_LINE_END))) {
       LOGGER.debug("Failed to parse standards from [{}].", file);
@@ -97,9 +190,51 @@ public class CsvMappingStrategy implements MappingStrategy {
     }
   }
 
+  private void loadSnapshot(StandardsSnapshot snapshot) {
+    for (MappedColumn column : snapshot.getMappedColumns()) {
+      StandardProvider standardProvider = column.getStandardProvider();
+      configStandardPropertyPairs.add(
+          new StandardPropertyPair(
+              standardProvider.getStandard(), standardProvider, column.getFormatName()));
+    }
+    countryCodeMappings.addAll(snapshot.getMappings());
+  }
+
+  /**
+   * Writes the parsed mapping configuration, the mappings and the entries of every mapped standard
+   * as a {@link StandardsSnapshot}.
+   */
+  void writeSnapshot(OutputStream outputStream) throws IOException {
+    StandardsSnapshot.write(outputStream, getMappedColumns(), countryCodeMappings);
+  }
+
+  /** @return the provider and mapping property of each column of the mapping configuration */
+  List<MappedColumn> getMappedColumns() {
+    List<MappedColumn> columns = new ArrayList<>(configStandardPropertyPairs.size());
+    for (StandardPropertyPair pair : configStandardPropertyPairs) {
+      columns.add(new MappedColumn(pair.getStandardProvider(), pair.getMappingProperty()));
+    }
+    return columns;
+  }
+
+  /** Reads a snapshot, resolving its standards against those registered with the registry. */
+  private static StandardsSnapshot readSnapshot(String file, StandardRegistry standardRegistry) {
+    try (InputStream snapshotStream =
+        CsvMappingStrategy.class.getClassLoader().getResourceAsStream(file)) {
+      if (snapshotStream == null) {
+        LOGGER.warn("No standards snapshot [{}] found. Mappings will be parsed.", file);
+        return null;
+      }
+      return StandardsSnapshot.read(snapshotStream, standardRegistry.getRegisteredStandards());
+    } catch (IOException e) {
+      LOGGER.warn("Failed to read standards snapshot [{}]. Mappings will be parsed.", file, e);
+      return null;
+    }
+  }
+
   @Override
   public Set<Set<CountryCode>> getMappings() {
-    return ImmutableSet.copyOf(countryCodeMappings);
+    return Collections.unmodifiableSet(countryCodeMappings);
   }
 
   @Override
@@ -113,51 +248,145 @@ public class CsvMappingStrategy implements MappingStrategy {
 
   @Override
   public Set<CountryCode> getMappingFor(final Standard standard, final String value) {
-    Optional<StandardPropertyPair> pairOptional =
-        configStandardPropertyPairs
-            .stream()
-            .filter(def -> StandardUtils.equalStandards(def.getStandard(), standard))
-            .findFirst();
+    CountryCodeMetrics metrics = Metrics.getMetrics();
+    if (metrics == CountryCodeMetrics.NOOP) {
+      return getMapping(standard, value);
+    }
 
-    if (!pairOptional.isPresent()) {
+    long start = System.nanoTime();
+    Set<CountryCode> mapping = getMapping(standard, value);
+    metrics.recordMappingLookups(
+        standard, 1, mapping.isEmpty() ? 1 : 0, System.nanoTime() - start);
+    return mapping;
+  }
+
+  private Set<CountryCode> getMapping(Standard standard, String value) {
+    Standard configStandard = getConfigStandard(standard);
+
+    if (configStandard == null) {
       LOGGER.debug(
           "Standard [{} {}] not found in standards provided mapping configuration [{}].",
           standard.getName(),
           standard.getVersion(),
           fileName);
+      recordMiss(standard, value);
       return Collections.emptySet();
     }
 
-    final StandardPropertyPair standardPropertyPair = pairOptional.get();
-    final Standard configStandard = standardPropertyPair.getStandard();
-    final String configFormat = standardPropertyPair.getMappingProperty();
-
-    for (Set<CountryCode> mapping : countryCodeMappings) {
-      Optional<CountryCode> countryCode =
-          mapping
-              .stream()
-              .filter(
-                  cc ->
-                      cc.getStandard().getFormatNames().contains(configFormat)
-                          && StandardUtils.equalStandards(standard, configStandard)
-                          && StandardUtils.containsFormatValue(cc, value))
-              .findFirst();
-
-      if (countryCode.isPresent()) {
-        Set<CountryCode> mappingSet = new HashSet<>();
-        for (CountryCode code : mapping) {
-          if (!StandardUtils.hasStandard(code, standard)) {
-            mappingSet.add(code);
-          }
+    Set<CountryCode> mapping = lookup(configStandard, value);
+    if (mapping.isEmpty()) {
+      recordMiss(standard, value);
+    }
+    return mapping;
+  }
+
+  @Override
+  public void getMappingsFor(Standard standard, String[] values, Set<CountryCode>[] results) {
+    Validate.isTrue(
+        results.length >= values.length,
+        "Results array of length [%d] cannot hold [%d] values.",
+        results.length,
+        values.length);
+
+    CountryCodeMetrics metrics = Metrics.getMetrics();
+    if (metrics == CountryCodeMetrics.NOOP) {
+      getMappings(standard, values, results);
+      return;
+    }
+
+    long start = System.nanoTime();
+    getMappings(standard, values, results);
+    long duration = System.nanoTime() - start;
+
+    int missCount = 0;
+    for (int i = 0; i < values.length; i++) {
+      if (results[i].isEmpty()) {
+        missCount++;
+      }
+    }
+    metrics.recordMappingLookups(standard, values.length, missCount, duration);
+  }
+
+  private void getMappings(Standard standard, String[] values, Set<CountryCode>[] results) {
+    Standard configStandard = getConfigStandard(standard);
+    if (configStandard == null) {
+      LOGGER.debug(
+          "Standard [{} {}] not found in standards provided mapping configuration [{}].",
+          standard.getName(),
+          standard.getVersion(),
+          fileName);
+      Arrays.fill(results, 0, values.length, Collections.emptySet());
+    } else if (values.length < PARALLEL_BATCH_SIZE) {
+      for (int i = 0; i < values.length; i++) {
+        results[i] = lookup(configStandard, values[i]);
+      }
+    } else {
+      IntStream.range(0, values.length)
+          .parallel()
+          .forEach(i -> results[i] = lookup(configStandard, values[i]));
+    }
+
+    if (missTracker != null) {
+      for (int i = 0; i < values.length; i++) {
+        if (results[i].isEmpty()) {
+          recordMiss(standard, values[i]);
         }
+      }
+    }
+  }
+
+  private void recordMiss(Standard standard, String value) {
+    MissTracker tracker = missTracker;
+    if (tracker != null) {
+      tracker.record(standard, value);
+    }
+  }
+
+  /**
+   * Starts or stops counting the values that have no mapping. Tracking is off by default. Values
+   * that a {@link org.codice.countrycode.CountryCodeConverter} over this strategy cannot convert
+   * are counted too.
+   *
+   * @param missTracker receives every value without a mapping, or null to stop tracking
+   */
+  public void setMissTracker(MissTracker missTracker) {
+    this.missTracker = missTracker;
+  }
+
+  /** @return the tracker counting values without a mapping, or null if tracking is off */
+  public MissTracker getMissTracker() {
+    return missTracker;
+  }
+
+  private Set<CountryCode> lookup(Standard configStandard, String value) {
+    if (value == null) {
+      return Collections.emptySet();
+    }
 
-        return ImmutableSet.copyOf(mappingSet);
+    for (String formatName : configStandard.getFormatNames()) {
+      Set<CountryCode> mapping = mappingIndex.get(configStandard, formatName, value);
+      if (mapping != null) {
+        return mapping;
       }
     }
 
     return Collections.emptySet();
   }
 
+  private Standard getConfigStandard(Standard standard) {
+    StandardPropertyPair definition = getDefinition(standard);
+    return definition == null ? null : definition.getStandard();
+  }
+
+  private StandardPropertyPair getDefinition(Standard standard) {
+    for (StandardPropertyPair pair : configStandardPropertyPairs) {
+      if (StandardUtils.equalStandards(pair.getStandard(), standard)) {
+        return pair;
+      }
+    }
+    return null;
+  }
+
   private boolean parseMappings(List<String> mappings) {
     boolean success = true;
 
@@ -167,6 +396,13 @@ public class CsvMappingStrategy implements MappingStrategy {
           String.format("Configuration [%s] must have at least 1 mapping.", fileName));
     }
 
+    // resolve each column's definition and provider once instead of for every cell
+    List<StandardPropertyPair> columnDefinitions =
+        new ArrayList<>(configStandardPropertyPairs.size());
+    for (StandardPropertyPair pair : configStandardPropertyPairs) {
+      columnDefinitions.add(getDefinition(pair.getStandard()));
+    }
+
     for (String mapping : mappings) {
       String[] propertyValues = mapping.split(",");
 
@@ -185,12 +421,8 @@ public class CsvMappingStrategy implements MappingStrategy {
 
       Set<CountryCode> currentMapping = new HashSet<>();
       for (int i = 0; i < propertyValues.length; i++) {
-        Standard propertyStandard = configStandardPropertyPairs.get(i).getStandard();
-        Optional<StandardPropertyPair> definitionOptional =
-            configStandardPropertyPairs
-                .stream()
-                .filter(def -> StandardUtils.equalStandards(def.getStandard(), propertyStandard))
-                .findFirst();
+        StandardPropertyPair definition = columnDefinitions.get(i);
+        Standard propertyStandard = definition.getStandard();
 
         String propertyValue = propertyValues[i].trim();
         if (StringUtils.isEmpty(propertyValue)) {
@@ -201,24 +433,11 @@ public class CsvMappingStrategy implements MappingStrategy {
           continue;
         }
 
-        if (!definitionOptional.isPresent()) {
-          LOGGER.error("No standard definition for property value [{}].", propertyValue);
-          success = false;
-          break;
-        }
-
-        StandardProvider mappingProvider =
-            standardRegistry.lookup(propertyStandard.getName(), propertyStandard.getVersion());
-        if (mappingProvider == null) {
-          LOGGER.error("Unable to find standard for property value [{}].", propertyValue);
-          success = false;
-          break;
-        }
-
-        Set<CountryCode> providerCodes = mappingProvider.getStandardEntries();
-        StandardPropertyPair definition = definitionOptional.get();
-        Optional<CountryCode> code = getCountryCodeFor(propertyValue, definition, providerCodes);
-        if (!code.isPresent()) {
+        CountryCode code =
+            definition
+                .getStandardProvider()
+                .getStandardEntry(definition.getMappingProperty(), propertyValue);
+        if (code == null) {
           LOGGER.error(
               "Standard [{} {}] did not have a code with a [{}] mapping property of value [{}].",
               propertyStandard.getName(),
@@ -229,10 +448,10 @@ public class CsvMappingStrategy implements MappingStrategy {
           break;
         }
 
-        currentMapping.add(code.get());
+        currentMapping.add(code);
       }
 
-      countryCodeMappings.add(currentMapping);
+      countryCodeMappings.add(ImmutableSet.copyOf(currentMapping));
     }
 
     return success;
@@ -248,7 +467,7 @@ public class CsvMappingStrategy implements MappingStrategy {
           "CSV configuration file must have at least 2 mapped standards.");
     }
 
-    List<Standard> definedConfigStandards = new ArrayList<>();
+    List<StandardProvider> definedConfigProviders = new ArrayList<>();
     for (String standard : configStandards) {
       String[] standardParts = standard.split(":");
       if (standardParts.length <= 1) {
@@ -270,7 +489,7 @@ public class CsvMappingStrategy implements MappingStrategy {
         continue;
       }
 
-      definedConfigStandards.add(standardProvider.getStandard());
+      definedConfigProviders.add(standardProvider);
     }
 
     // return if we failed to parse standards
@@ -279,7 +498,7 @@ public class CsvMappingStrategy implements MappingStrategy {
     }
 
     String[] mappingProperties = lines.get(1).split(",");
-    if (mappingProperties.length != definedConfigStandards.size()) {
+    if (mappingProperties.length != definedConfigProviders.size()) {
       LOGGER.error(
           "Every defined standard must have a mapping property supported by that standard.");
       throw new IllegalStateException("Every defined standard must have a mapping property.");
@@ -287,10 +506,12 @@ public class CsvMappingStrategy implements MappingStrategy {
 
     for (int i = 0; i < mappingProperties.length; i++) {
       String mappingProperty = mappingProperties[i].trim();
-      Standard defStandard = definedConfigStandards.get(i);
+      StandardProvider defProvider = definedConfigProviders.get(i);
+      Standard defStandard = defProvider.getStandard();
 
       if (defStandard.getFormatNames().contains(mappingProperty)) {
-        configStandardPropertyPairs.add(new StandardPropertyPair(defStandard, mappingProperty));
+        configStandardPropertyPairs.add(
+            new StandardPropertyPair(defStandard, defProvider, mappingProperty));
       } else {
         LOGGER.error(
             "Invalid standard mapping property [{}]. Valid values are {}.",
@@ -303,18 +524,10 @@ public class CsvMappingStrategy implements MappingStrategy {
     return success;
   }
 
-  private Optional<CountryCode> getCountryCodeFor(
-      String propertyValue, StandardPropertyPair definition, Set<CountryCode> providerCodes) {
-    return providerCodes
-        .stream()
-        .filter(cc -> cc.getAsFormat(definition.getMappingProperty()).equals(propertyValue))
-        .findFirst();
-  }
-
-  private List<String> getFileLines() {
+  private List<String> getFileLines(InputStream fileStream) {
     List<String> fileLines = new ArrayList<>();
 
-    try (BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(inputStream))) {
+    try (BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(fileStream))) {
       String line;
       while ((line = bufferedReader.readLine()) != null) {
         fileLines.add(line);
@@ -336,10 +549,14 @@ public class CsvMappingStrategy implements MappingStrategy {
   private class StandardPropertyPair {
     private final Standard standard;
 
+    private final StandardProvider standardProvider;
+
     private final String mappingProperty;
 
-    StandardPropertyPair(Standard standard, String mappingProperty) {
+    StandardPropertyPair(
+        Standard standard, StandardProvider standardProvider, String mappingProperty) {
       this.standard = standard;
+      this.standardProvider = standardProvider;
       this.mappingProperty = mappingProperty;
     }
 
@@ -347,6 +564,10 @@ public class CsvMappingStrategy implements MappingStrategy {
       return standard;
     }
 
+    StandardProvider getStandardProvider() {
+      return standardProvider;
+    }
+
     String getMappingProperty() {
       return mappingProperty;
     }
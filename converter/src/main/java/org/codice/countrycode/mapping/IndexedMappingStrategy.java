@@ -0,0 +1,40 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.countrycode.mapping;
+
+import java.util.Set;
+import org.codice.countrycode.converter.MappingStrategy;
+import org.codice.countrycode.standard.CountryCode;
+import org.codice.countrycode.standard.Standard;
+
+/**
+ * A {@link MappingStrategy} that converts values by looking them up in its own index. {@link
+ * org.codice.countrycode.CountryCodeConverter} queries such a strategy for every conversion instead
+ * of copying its mappings into a conversion table of its own, so the data is not duplicated on the
+ * heap.
+ */
+public interface IndexedMappingStrategy extends MappingStrategy {
+
+  /**
+   * Returns the codes of the {@code to} standard that the code of the {@code from} standard with
+   * a format value of {@code value} maps to. When the standards are the same, returns the mapped
+   * codes of that standard having the value.
+   *
+   * @param from the standard of the code identified by {@code value}
+   * @param value the value to look up, ignoring case and surrounding whitespace
+   * @param to the standard to map to
+   * @return the mapped codes, or an empty set if there are none
+   */
+  Set<CountryCode> getMappingFor(Standard from, CharSequence value, Standard to);
+}
@@ -0,0 +1,754 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.countrycode.mapping;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeMap;
+import org.codice.countrycode.standard.CountryCode;
+import org.codice.countrycode.standard.Standard;
+import org.codice.countrycode.standard.StandardProvider;
+import org.codice.countrycode.standards.common.AbstractCountryCode;
+import org.codice.countrycode.standards.common.NormalizedKey;
+import org.codice.countrycode.standards.common.StandardUtils;
+import org.codice.countrycode.standards.common.StandardsSnapshot.MappedColumn;
+
+/**
+ * Read-only store of standards and mappings backed by a memory-mapped file. Every worker process
+ * that opens the same file shares one copy of the data through the OS page cache instead of
+ * holding its own heap copy. Lookups binary search sorted offset tables in the mapped region and
+ * {@link CountryCode}s are lightweight views over it, created only when a lookup returns them.
+ *
+ * <p>The file starts with a header of {@link #MAGIC}, {@link #FORMAT_VERSION} and the counts and
+ * offsets of the standard, column and mapping tables, followed by a pool of length-prefixed UTF-8
+ * strings. Each standard has a fixed-size record per entry holding string offsets for its name and
+ * format values, and per format a table of (upper-cased value, entry) pairs sorted by value.
+ * Mappings are lists of (standard, entry) references. All offsets are absolute.
+ */
+public final class MappedStandardsStore {
+
+  /** "CCMS", marks a memory-mapped country code standards store. */
+  private static final int MAGIC = 0x43434D53;
+
+  private static final int FORMAT_VERSION = 1;
+
+  private static final int HEADER_SIZE = 32;
+
+  private static final int NONE = -1;
+
+  private static final Comparator<byte[]> UNSIGNED_BYTES = MappedStandardsStore::compareBytes;
+
+  private final ByteBuffer buffer;
+
+  private final List<MappedStandard> standards;
+
+  private final List<StandardProvider> standardProviders;
+
+  private final IndexedMappingStrategy mappingStrategy;
+
+  private MappedStandardsStore(ByteBuffer buffer) throws IOException {
+    this.buffer = buffer;
+    if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+      throw new IOException("Not a memory-mapped country code standards store.");
+    }
+    if (buffer.getInt(4) != FORMAT_VERSION) {
+      throw new IOException(
+          String.format("Unsupported standards store version [%d].", buffer.getInt(4)));
+    }
+
+    int standardCount = buffer.getInt(8);
+    int standardsOffset = buffer.getInt(12);
+    ImmutableList.Builder<MappedStandard> standardsBuilder = ImmutableList.builder();
+    ImmutableList.Builder<StandardProvider> providersBuilder = ImmutableList.builder();
+    for (int i = 0; i < standardCount; i++) {
+      MappedStandard standard = new MappedStandard(i, buffer.getInt(standardsOffset + i * 4));
+      standardsBuilder.add(standard);
+      providersBuilder.add(new MappedStandardProvider(standard));
+    }
+    standards = standardsBuilder.build();
+    standardProviders = providersBuilder.build();
+    mappingStrategy = new MappedMappingStrategy();
+  }
+
+  /**
+   * Maps a store file into memory. The file must not be modified while it is open.
+   *
+   * @param file a file written by {@link #write(Path, CsvMappingStrategy)}
+   * @return the store
+   * @throws IOException if the file could not be mapped or is not a supported store
+   */
+  public static MappedStandardsStore open(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      return new MappedStandardsStore(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    }
+  }
+
+  /**
+   * Writes the mapping configuration, mappings and mapped standards of a mapping strategy to a
+   * store file.
+   *
+   * @param file the file to write, replaced if it exists
+   * @param mappingStrategy the strategy whose data is written
+   * @throws IOException if the file could not be written
+   */
+  public static void write(Path file, CsvMappingStrategy mappingStrategy) throws IOException {
+    Files.write(file, encode(mappingStrategy.getMappedColumns(), mappingStrategy.getMappings()));
+  }
+
+  /** @return a provider for each standard in this store */
+  public List<StandardProvider> getStandardProviders() {
+    return standardProviders;
+  }
+
+  /**
+   * Returns a mapping strategy over the mappings in this store. It is an {@link
+   * IndexedMappingStrategy}, so a {@link org.codice.countrycode.CountryCodeConverter} built on it
+   * looks every conversion up in the mapped region rather than copying the mappings to the heap.
+   * Such lookups search the region and build their result each time, so they are several times
+   * slower than those of a converter over a {@link CsvMappingStrategy}; use one of those where
+   * conversion speed matters more than heap size.
+   *
+   * @return the mapping strategy
+   */
+  public IndexedMappingStrategy getMappingStrategy() {
+    return mappingStrategy;
+  }
+
+  private static byte[] encode(List<MappedColumn> columns, Collection<Set<CountryCode>> mappings)
+      throws IOException {
+    Set<StandardProvider> providerSet = new LinkedHashSet<>();
+    columns.forEach(column -> providerSet.add(column.getStandardProvider()));
+    List<StandardProvider> providers = new ArrayList<>(providerSet);
+    List<Set<CountryCode>> mappingList = new ArrayList<>(mappings);
+
+    List<List<String>> formatNames = new ArrayList<>();
+    List<List<CountryCode>> entries = new ArrayList<>();
+    Map<CountryCode, int[]> references = new HashMap<>();
+    for (int s = 0; s < providers.size(); s++) {
+      formatNames.add(new ArrayList<>(providers.get(s).getStandard().getFormatNames()));
+      List<CountryCode> standardEntries = new ArrayList<>(providers.get(s).getStandardEntries());
+      entries.add(standardEntries);
+      for (int e = 0; e < standardEntries.size(); e++) {
+        references.putIfAbsent(standardEntries.get(e), new int[] {s, e});
+      }
+    }
+
+    Map<CountryCode, Integer> firstMappings = new HashMap<>();
+    for (int m = 0; m < mappingList.size(); m++) {
+      for (CountryCode countryCode : mappingList.get(m)) {
+        if (!references.containsKey(countryCode)) {
+          throw new IllegalArgumentException(
+              String.format(
+                  "Mapped country code [%s] is not provided by any standard.", countryCode));
+        }
+        firstMappings.putIfAbsent(countryCode, m);
+      }
+    }
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    out.write(new byte[HEADER_SIZE]);
+
+    // string pool
+    Map<String, Integer> strings = new LinkedHashMap<>();
+    for (int s = 0; s < providers.size(); s++) {
+      Standard standard = providers.get(s).getStandard();
+      writeString(out, strings, standard.getName());
+      writeString(out, strings, standard.getVersion());
+      for (String formatName : formatNames.get(s)) {
+        writeString(out, strings, formatName);
+      }
+      for (CountryCode countryCode : entries.get(s)) {
+        writeString(out, strings, countryCode.getName());
+        for (String formatName : formatNames.get(s)) {
+          String formatValue = countryCode.getAsFormat(formatName);
+          if (formatValue != null) {
+            writeString(out, strings, formatValue);
+            writeString(out, strings, normalize(formatValue));
+          }
+        }
+      }
+    }
+    for (MappedColumn column : columns) {
+      writeString(out, strings, column.getFormatName());
+    }
+
+    // per standard: entry records, then a sorted value index per format, then the standard record
+    int[] standardOffsets = new int[providers.size()];
+    for (int s = 0; s < providers.size(); s++) {
+      List<String> standardFormats = formatNames.get(s);
+      List<CountryCode> standardEntries = entries.get(s);
+
+      int entriesOffset = out.size();
+      for (CountryCode countryCode : standardEntries) {
+        out.writeInt(strings.get(countryCode.getName()));
+        out.writeInt(firstMappings.getOrDefault(countryCode, NONE));
+        for (String formatName : standardFormats) {
+          String formatValue = countryCode.getAsFormat(formatName);
+          out.writeInt(formatValue == null ? NONE : strings.get(formatValue));
+        }
+      }
+
+      int[] indexOffsets = new int[standardFormats.size()];
+      int[] indexSizes = new int[standardFormats.size()];
+      for (int f = 0; f < standardFormats.size(); f++) {
+        Map<byte[], List<Integer>> entriesByKey = new TreeMap<>(UNSIGNED_BYTES);
+        int indexSize = 0;
+        for (int e = 0; e < standardEntries.size(); e++) {
+          String formatValue = standardEntries.get(e).getAsFormat(standardFormats.get(f));
+          if (formatValue != null) {
+            byte[] key = normalize(formatValue).getBytes(StandardCharsets.UTF_8);
+            entriesByKey.computeIfAbsent(key, k -> new ArrayList<>()).add(e);
+            indexSize++;
+          }
+        }
+
+        indexOffsets[f] = out.size();
+        indexSizes[f] = indexSize;
+        for (Map.Entry<byte[], List<Integer>> entry : entriesByKey.entrySet()) {
+          int keyOffset = strings.get(new String(entry.getKey(), StandardCharsets.UTF_8));
+          for (int entryIndex : entry.getValue()) {
+            out.writeInt(keyOffset);
+            out.writeInt(entryIndex);
+          }
+        }
+      }
+
+      standardOffsets[s] = out.size();
+      Standard standard = providers.get(s).getStandard();
+      out.writeInt(strings.get(standard.getName()));
+      out.writeInt(strings.get(standard.getVersion()));
+      out.writeInt(standardFormats.size());
+      out.writeInt(standardEntries.size());
+      out.writeInt(entriesOffset);
+      for (int f = 0; f < standardFormats.size(); f++) {
+        out.writeInt(strings.get(standardFormats.get(f)));
+        out.writeInt(indexOffsets[f]);
+        out.writeInt(indexSizes[f]);
+      }
+    }
+
+    int standardsOffset = out.size();
+    for (int standardOffset : standardOffsets) {
+      out.writeInt(standardOffset);
+    }
+
+    int columnsOffset = out.size();
+    for (MappedColumn column : columns) {
+      out.writeInt(providers.indexOf(column.getStandardProvider()));
+      out.writeInt(strings.get(column.getFormatName()));
+    }
+
+    int[] mappingOffsets = new int[mappingList.size()];
+    for (int m = 0; m < mappingList.size(); m++) {
+      mappingOffsets[m] = out.size();
+      out.writeInt(mappingList.get(m).size());
+      for (CountryCode countryCode : mappingList.get(m)) {
+        int[] reference = references.get(countryCode);
+        out.writeInt(reference[0]);
+        out.writeInt(reference[1]);
+      }
+    }
+
+    int mappingsOffset = out.size();
+    for (int mappingOffset : mappingOffsets) {
+      out.writeInt(mappingOffset);
+    }
+    out.flush();
+
+    ByteBuffer header = ByteBuffer.wrap(bytes.toByteArray());
+    header
+        .putInt(0, MAGIC)
+        .putInt(4, FORMAT_VERSION)
+        .putInt(8, providers.size())
+        .putInt(12, standardsOffset)
+        .putInt(16, columns.size())
+        .putInt(20, columnsOffset)
+        .putInt(24, mappingList.size())
+        .putInt(28, mappingsOffset);
+    return header.array();
+  }
+
+  private static void writeString(DataOutputStream out, Map<String, Integer> strings, String value)
+      throws IOException {
+    if (strings.containsKey(value)) {
+      return;
+    }
+
+    byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+    if (utf8.length > 0xFFFF) {
+      throw new IllegalArgumentException(
+          String.format("Value [%s...] is too long to store.", value.substring(0, 16)));
+    }
+    strings.put(value, out.size());
+    out.writeShort(utf8.length);
+    out.write(utf8);
+  }
+
+  private static String normalize(CharSequence value) {
+    return NormalizedKey.normalize(value);
+  }
+
+  private static int compareBytes(byte[] first, byte[] second) {
+    int length = Math.min(first.length, second.length);
+    for (int i = 0; i < length; i++) {
+      int compare = Integer.compare(first[i] & 0xFF, second[i] & 0xFF);
+      if (compare != 0) {
+        return compare;
+      }
+    }
+    return Integer.compare(first.length, second.length);
+  }
+
+  private String readString(int offset) {
+    byte[] utf8 = new byte[buffer.getShort(offset) & 0xFFFF];
+    for (int i = 0; i < utf8.length; i++) {
+      utf8[i] = buffer.get(offset + 2 + i);
+    }
+    return new String(utf8, StandardCharsets.UTF_8);
+  }
+
+  /** Compares the string at {@code offset} with {@code key}, both as unsigned UTF-8 bytes. */
+  private int compareString(int offset, byte[] key) {
+    int length = buffer.getShort(offset) & 0xFFFF;
+    int common = Math.min(length, key.length);
+    for (int i = 0; i < common; i++) {
+      int compare = Integer.compare(buffer.get(offset + 2 + i) & 0xFF, key[i] & 0xFF);
+      if (compare != 0) {
+        return compare;
+      }
+    }
+    return Integer.compare(length, key.length);
+  }
+
+  private Set<CountryCode> mappingCodes(int mapping) {
+    return mappingCodes(mapping, null, null);
+  }
+
+  /**
+   * @param excluded the standard whose codes to leave out, or null
+   * @param included the only standard whose codes to return, or null for every standard
+   * @return views of the codes of the mapping
+   */
+  private Set<CountryCode> mappingCodes(
+      int mapping, MappedStandard excluded, MappedStandard included) {
+    int offset = buffer.getInt(buffer.getInt(28) + mapping * 4);
+    int size = buffer.getInt(offset);
+    ImmutableSet.Builder<CountryCode> codes = ImmutableSet.builder();
+    for (int i = 0; i < size; i++) {
+      int reference = offset + 4 + i * 8;
+      MappedStandard standard = standards.get(buffer.getInt(reference));
+      if (standard != excluded && (included == null || standard == included)) {
+        codes.add(standard.view(buffer.getInt(reference + 4)));
+      }
+    }
+    return codes.build();
+  }
+
+  private MappedStandard findStandard(Standard standard) {
+    // converters usually pass back the standards of this store
+    if (standard instanceof MappedStandard && standards.contains(standard)) {
+      return (MappedStandard) standard;
+    }
+    for (MappedStandard mappedStandard : standards) {
+      if (StandardUtils.equalStandards(mappedStandard, standard)) {
+        return mappedStandard;
+      }
+    }
+    return null;
+  }
+
+  /** A standard stored in the mapped region, with its small header decoded up front. */
+  private final class MappedStandard implements Standard {
+
+    private final int index;
+
+    private final String name;
+
+    private final String version;
+
+    private final List<String> formatNames;
+
+    private final Set<String> formatNameSet;
+
+    private final int entryCount;
+
+    private final int entriesOffset;
+
+    private final int[] indexOffsets;
+
+    private final int[] indexSizes;
+
+    /** Views of the entries, created the first time each one is read. */
+    private final MappedCountryCode[] views;
+
+    MappedStandard(int index, int offset) {
+      this.index = index;
+      name = readString(buffer.getInt(offset));
+      version = readString(buffer.getInt(offset + 4));
+      int formatCount = buffer.getInt(offset + 8);
+      entryCount = buffer.getInt(offset + 12);
+      entriesOffset = buffer.getInt(offset + 16);
+      views = new MappedCountryCode[entryCount];
+
+      ImmutableList.Builder<String> formatNamesBuilder = ImmutableList.builder();
+      indexOffsets = new int[formatCount];
+      indexSizes = new int[formatCount];
+      for (int f = 0; f < formatCount; f++) {
+        int formatOffset = offset + 20 + f * 12;
+        formatNamesBuilder.add(readString(buffer.getInt(formatOffset)));
+        indexOffsets[f] = buffer.getInt(formatOffset + 4);
+        indexSizes[f] = buffer.getInt(formatOffset + 8);
+      }
+      formatNames = formatNamesBuilder.build();
+      formatNameSet = ImmutableSet.copyOf(formatNames);
+    }
+
+    @Override
+    public String getName() {
+      return name;
+    }
+
+    @Override
+    public String getVersion() {
+      return version;
+    }
+
+    @Override
+    public Set<String> getFormatNames() {
+      return formatNameSet;
+    }
+
+    /**
+     * Returns the view of an entry. Views are shared so that repeated lookups neither allocate
+     * them again nor recompute their hash codes; racing threads may each create one, and any of
+     * them is fine to keep since views are immutable.
+     */
+    MappedCountryCode view(int entry) {
+      MappedCountryCode view = views[entry];
+      if (view == null) {
+        view = new MappedCountryCode(this, entry);
+        views[entry] = view;
+      }
+      return view;
+    }
+
+    private int entryOffset(int entry) {
+      return entriesOffset + entry * 4 * (2 + formatNames.size());
+    }
+
+    String entryName(int entry) {
+      return readString(buffer.getInt(entryOffset(entry)));
+    }
+
+    int entryMapping(int entry) {
+      return buffer.getInt(entryOffset(entry) + 4);
+    }
+
+    String entryFormatValue(int entry, String formatName) {
+      int format = formatNames.indexOf(formatName);
+      if (format < 0) {
+        return null;
+      }
+
+      int valueOffset = buffer.getInt(entryOffset(entry) + 8 + format * 4);
+      return valueOffset == NONE ? null : readString(valueOffset);
+    }
+
+    /**
+     * Binary searches the value index of a format for the first entry whose upper-cased value is
+     * {@code key}.
+     *
+     * @return the position in the index, or -1 if no entry has the value
+     */
+    int findFirst(int format, byte[] key) {
+      int low = 0;
+      int high = indexSizes[format];
+      while (low < high) {
+        int middle = (low + high) >>> 1;
+        if (compareString(buffer.getInt(indexOffsets[format] + middle * 8), key) < 0) {
+          low = middle + 1;
+        } else {
+          high = middle;
+        }
+      }
+
+      if (low < indexSizes[format]
+          && compareString(buffer.getInt(indexOffsets[format] + low * 8), key) == 0) {
+        return low;
+      }
+      return NONE;
+    }
+
+    /**
+     * @return the entries whose value in the format equals {@code value}, ignoring case and
+     *     surrounding whitespace
+     */
+    List<Integer> findEntries(String formatName, CharSequence value) {
+      int format = formatNames.indexOf(formatName);
+      if (format < 0 || value == null) {
+        return Collections.emptyList();
+      }
+
+      byte[] key = normalize(value).getBytes(StandardCharsets.UTF_8);
+      int position = findFirst(format, key);
+      if (position == NONE) {
+        return Collections.emptyList();
+      }
+
+      List<Integer> found = new ArrayList<>(1);
+      for (int i = position; i < indexSizes[format]; i++) {
+        int pair = indexOffsets[format] + i * 8;
+        if (compareString(buffer.getInt(pair), key) != 0) {
+          break;
+        }
+        found.add(buffer.getInt(pair + 4));
+      }
+      return found;
+    }
+  }
+
+  /**
+   * A country code view that reads its name and format values from the mapped region. Views are
+   * equal to any code with the same standard, name and format values, wherever it was loaded from.
+   */
+  private final class MappedCountryCode extends AbstractCountryCode {
+
+    private final MappedStandard standard;
+
+    private final int entry;
+
+    MappedCountryCode(MappedStandard standard, int entry) {
+      this.standard = standard;
+      this.entry = entry;
+    }
+
+    @Override
+    public String getAsFormat(String formatName) {
+      return standard.entryFormatValue(entry, formatName);
+    }
+
+    @Override
+    public String getName() {
+      return standard.entryName(entry);
+    }
+
+    @Override
+    public Standard getStandard() {
+      return standard;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "MappedCountryCode{standard=%s %s, name=%s}",
+          standard.getName(), standard.getVersion(), getName());
+    }
+  }
+
+  private final class MappedStandardProvider implements StandardProvider {
+
+    private final MappedStandard standard;
+
+    private final Set<CountryCode> standardEntries;
+
+    MappedStandardProvider(MappedStandard standard) {
+      this.standard = standard;
+      this.standardEntries = new EntrySet(standard);
+    }
+
+    @Override
+    public Standard getStandard() {
+      return standard;
+    }
+
+    @Override
+    public Set<CountryCode> getStandardEntries() {
+      return standardEntries;
+    }
+
+    @Override
+    public CountryCode getStandardEntry(String formatName, String value) {
+      List<Integer> entries = standard.findEntries(formatName, value);
+      return entries.isEmpty() ? null : standard.view(entries.get(0));
+    }
+  }
+
+  /** The entries of a standard, created as views while iterating. */
+  private final class EntrySet extends AbstractSet<CountryCode> {
+
+    private final MappedStandard standard;
+
+    EntrySet(MappedStandard standard) {
+      this.standard = standard;
+    }
+
+    @Override
+    public Iterator<CountryCode> iterator() {
+      return new Iterator<CountryCode>() {
+        private int next;
+
+        @Override
+        public boolean hasNext() {
+          return next < standard.entryCount;
+        }
+
+        @Override
+        public CountryCode next() {
+          if (!hasNext()) {
+            throw new NoSuchElementException();
+          }
+          return standard.view(next++);
+        }
+      };
+    }
+
+    @Override
+    public int size() {
+      return standard.entryCount;
+    }
+  }
+
+  private final class MappedMappingStrategy implements IndexedMappingStrategy {
+
+    private final Set<Standard> mappedStandards;
+
+    MappedMappingStrategy() {
+      int columnsOffset = buffer.getInt(20);
+      Set<Standard> columnStandards = new LinkedHashSet<>();
+      for (int c = 0; c < buffer.getInt(16); c++) {
+        columnStandards.add(standards.get(buffer.getInt(columnsOffset + c * 8)));
+      }
+      mappedStandards = ImmutableSet.copyOf(columnStandards);
+    }
+
+    @Override
+    public Set<Set<CountryCode>> getMappings() {
+      int mappingCount = buffer.getInt(24);
+      return new AbstractSet<Set<CountryCode>>() {
+        @Override
+        public Iterator<Set<CountryCode>> iterator() {
+          return new Iterator<Set<CountryCode>>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+              return next < mappingCount;
+            }
+
+            @Override
+            public Set<CountryCode> next() {
+              if (!hasNext()) {
+                throw new NoSuchElementException();
+              }
+              return mappingCodes(next++);
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          return mappingCount;
+        }
+      };
+    }
+
+    @Override
+    public Set<Standard> getMappedStandards() {
+      return mappedStandards;
+    }
+
+    @Override
+    public Set<CountryCode> getMappingFor(Standard standard, String value) {
+      MappedStandard mappedStandard = findMappedStandard(standard);
+      if (mappedStandard == null) {
+        return Collections.emptySet();
+      }
+
+      int mapping = findMapping(mappedStandard, value);
+      return mapping == NONE
+          ? Collections.emptySet()
+          : mappingCodes(mapping, mappedStandard, null);
+    }
+
+    @Override
+    public Set<CountryCode> getMappingFor(Standard from, CharSequence value, Standard to) {
+      MappedStandard fromStandard = findMappedStandard(from);
+      MappedStandard toStandard = findMappedStandard(to);
+      if (fromStandard == null || toStandard == null) {
+        return Collections.emptySet();
+      }
+
+      if (fromStandard == toStandard) {
+        ImmutableSet.Builder<CountryCode> codes = ImmutableSet.builder();
+        for (String formatName : fromStandard.formatNames) {
+          for (int entry : fromStandard.findEntries(formatName, value)) {
+            if (fromStandard.entryMapping(entry) != NONE) {
+              codes.add(fromStandard.view(entry));
+            }
+          }
+        }
+        return codes.build();
+      }
+
+      int mapping = findMapping(fromStandard, value);
+      return mapping == NONE
+          ? Collections.emptySet()
+          : mappingCodes(mapping, null, toStandard);
+    }
+
+    /** @return the mapped standard equal to {@code standard}, or null if it is not mapped */
+    private MappedStandard findMappedStandard(Standard standard) {
+      MappedStandard mappedStandard = findStandard(standard);
+      return mappedStandard != null && mappedStandards.contains(mappedStandard)
+          ? mappedStandard
+          : null;
+    }
+
+    /** @return the mapping of the first entry having the value in any format, or {@link #NONE} */
+    private int findMapping(MappedStandard standard, CharSequence value) {
+      for (String formatName : standard.formatNames) {
+        for (int entry : standard.findEntries(formatName, value)) {
+          int mapping = standard.entryMapping(entry);
+          if (mapping != NONE) {
+            return mapping;
+          }
+        }
+      }
+      return NONE;
+    }
+  }
+}
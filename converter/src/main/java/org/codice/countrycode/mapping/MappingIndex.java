@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.countrycode.mapping;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import org.codice.countrycode.standard.CountryCode;
+import org.codice.countrycode.standard.Standard;
+import org.codice.countrycode.standards.common.NormalizedKey;
+import org.codice.countrycode.standards.common.NormalizedKeyMap;
+import org.codice.countrycode.standards.common.StandardUtils;
+
+/**
+ * Pre-computed lookup of country code mappings keyed by (standard, format, value). Every country
+ * code in every mapping is indexed under each of its format values, so a lookup is a single probe
+ * of the {@link NormalizedKey normalized} value that returns an immutable set of the other country
+ * codes in the mapping.
+ */
+final class MappingIndex {
+
+  private final List<StandardIndex> standardIndexes;
+
+  MappingIndex(Collection<? extends Set<CountryCode>> mappings) {
+    Map<String, Standard> standards = new LinkedHashMap<>();
+    Map<String, Map<String, Map<String, Set<CountryCode>>>> builders = new HashMap<>();
+
+    for (Set<CountryCode> mapping : mappings) {
+      for (CountryCode countryCode : mapping) {
+        Standard standard = countryCode.getStandard();
+        String standardKey = standardKey(standard);
+        standards.putIfAbsent(standardKey, standard);
+        Map<String, Map<String, Set<CountryCode>>> byFormat =
+            builders.computeIfAbsent(standardKey, key -> new HashMap<>());
+        Set<CountryCode> otherCodes = otherCodes(mapping, standard);
+
+        for (String formatName : standard.getFormatNames()) {
+          String formatValue = countryCode.getAsFormat(formatName);
+          if (formatValue != null) {
+            byFormat
+                .computeIfAbsent(formatName, key -> new LinkedHashMap<>())
+                .putIfAbsent(formatValue, otherCodes);
+          }
+        }
+      }
+    }
+
+    ImmutableList.Builder<StandardIndex> indexesBuilder = ImmutableList.builder();
+    standards.forEach(
+        (standardKey, standard) -> {
+          ImmutableMap.Builder<String, NormalizedKeyMap<Set<CountryCode>>> byFormat =
+              ImmutableMap.builder();
+          builders
+              .get(standardKey)
+              .forEach(
+                  (formatName, byValue) ->
+                      byFormat.put(formatName, new NormalizedKeyMap<>(byValue)));
+          indexesBuilder.add(new StandardIndex(standard, byFormat.build()));
+        });
+    standardIndexes = indexesBuilder.build();
+  }
+
+  /**
+   * Returns the country codes mapped to the code of {@code standard} whose {@code formatName}
+   * format equals {@code value}, ignoring case and surrounding whitespace.
+   *
+   * @return the mapped country codes, or null if there is no such code
+   */
+  Set<CountryCode> get(Standard standard, String formatName, CharSequence value) {
+    for (StandardIndex standardIndex : standardIndexes) {
+      if (StandardUtils.equalStandards(standardIndex.standard, standard)) {
+        NormalizedKeyMap<Set<CountryCode>> byValue = standardIndex.byFormat.get(formatName);
+        return byValue == null ? null : byValue.get(value);
+      }
+    }
+    return null;
+  }
+
+  private static Set<CountryCode> otherCodes(Set<CountryCode> mapping, Standard standard) {
+    ImmutableSet.Builder<CountryCode> builder = ImmutableSet.builder();
+    for (CountryCode code : mapping) {
+      if (!StandardUtils.hasStandard(code, standard)) {
+        builder.add(code);
+      }
+    }
+    return builder.build();
+  }
+
+  private static String standardKey(Standard standard) {
+    return standard.getName().toUpperCase(Locale.ROOT)
+        + ':'
+        + standard.getVersion().toUpperCase(Locale.ROOT);
+  }
+
+  /** The format value indexes of the mapped codes of one standard. */
+  private static final class StandardIndex {
+
+    private final Standard standard;
+
+    private final Map<String, NormalizedKeyMap<Set<CountryCode>>> byFormat;
+
+    StandardIndex(Standard standard, Map<String, NormalizedKeyMap<Set<CountryCode>>> byFormat) {
+      this.standard = standard;
+      this.byFormat = byFormat;
+    }
+  }
+}
@@ -0,0 +1,318 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.countrycode.mapping;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import org.apache.commons.lang3.Validate;
+import org.codice.countrycode.standard.Standard;
+import org.codice.countrycode.standards.common.NormalizedKey;
+
+/**
+ * Counts the (standard, value) pairs that a mapping strategy could not map, keeping only the most
+ * frequent ones. The slots are split into stripes by the hash of the pair, and each stripe counts
+ * its own pairs with the Space-Saving heavy-hitters algorithm: once its slots are full, a new pair
+ * takes over the slot of the stripe's least frequent pair and inherits its count as an
+ * overestimate. The guarantee therefore only holds per stripe: a pair is tracked if it was counted
+ * more often than the misses counted in its stripe divided by the stripe's capacity. A pair that
+ * shares its stripe with many other misses may be evicted even though it is frequent overall.
+ *
+ * <p>Recording a miss takes no lock: it only increments a pending count for the pair, so a pair
+ * missed by many threads at once is counted exactly. The pending counts of a stripe are merged into
+ * its slots by whichever thread finds the stripe's lock free once enough pairs are pending, and
+ * always before the misses are read. A recording thread only waits for the lock if the pending
+ * pairs of its stripe grow well past the stripe's capacity, which bounds the memory they hold.
+ */
+public final class MissTracker {
+
+  private static final int DEFAULT_CAPACITY = 256;
+
+  private static final int STRIPES = 8;
+
+  private final Stripe[] stripes;
+
+  public MissTracker() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /** @param capacity the number of pairs tracked, at least one per stripe */
+  public MissTracker(int capacity) {
+    Validate.isTrue(capacity >= STRIPES, "Capacity must be at least [%d].", STRIPES);
+    stripes = new Stripe[STRIPES];
+    for (int i = 0; i < STRIPES; i++) {
+      stripes[i] = new Stripe(capacity / STRIPES + (i < capacity % STRIPES ? 1 : 0));
+    }
+  }
+
+  /**
+   * Records that a value of a standard had no mapping. Values are counted ignoring case.
+   *
+   * @param standard the standard of the value, cannot be null
+   * @param value the value without a mapping, ignored if null
+   */
+  public void record(Standard standard, String value) {
+    if (value == null) {
+      return;
+    }
+
+    MissKey key = new MissKey(standard, value);
+    stripes[Math.floorMod(key.hashCode, STRIPES)].record(key);
+  }
+
+  /**
+   * Returns the most frequent misses, most frequent first.
+   *
+   * @param n the maximum number of misses to return, cannot be negative
+   * @return the tracked misses with the highest counts
+   */
+  public List<Miss> getTopMisses(int n) {
+    Validate.isTrue(n >= 0, "Number of misses [%d] cannot be negative.", n);
+
+    List<Miss> misses = new ArrayList<>();
+    for (Stripe stripe : stripes) {
+      stripe.collect(misses);
+    }
+
+    misses.sort(Comparator.comparingLong(Miss::getCount).reversed());
+    return misses.size() > n ? new ArrayList<>(misses.subList(0, n)) : misses;
+  }
+
+  /** Forgets every recorded miss. */
+  public void reset() {
+    for (Stripe stripe : stripes) {
+      stripe.clear();
+    }
+  }
+
+  /** A (standard, value) pair without a mapping and how often it was missed. */
+  public static final class Miss {
+
+    private final String standardName;
+
+    private final String standardVersion;
+
+    private final String value;
+
+    private final long count;
+
+    private final long error;
+
+    Miss(MissKey key, long count, long error) {
+      this.standardName = key.standardName;
+      this.standardVersion = key.standardVersion;
+      this.value = key.value;
+      this.count = count;
+      this.error = error;
+    }
+
+    /** @return the upper-cased name of the standard */
+    public String getStandardName() {
+      return standardName;
+    }
+
+    /** @return the upper-cased version of the standard */
+    public String getStandardVersion() {
+      return standardVersion;
+    }
+
+    /** @return the upper-cased value */
+    public String getValue() {
+      return value;
+    }
+
+    /** @return the number of misses counted, which may overestimate the true count by the error */
+    public long getCount() {
+      return count;
+    }
+
+    /** @return the most the count may overestimate the true number of misses by */
+    public long getError() {
+      return error;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "Miss{standard=%s %s, value=%s, count=%d, error=%d}",
+          standardName, standardVersion, value, count, error);
+    }
+  }
+
+  /** A share of the slots, holding the pairs whose hash falls into it. */
+  private static final class Stripe {
+
+    /** Marks a pending count that was merged, so that it is no longer incremented. */
+    private static final long MERGED = -1;
+
+    private final int capacity;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /** The slots, only accessed under the lock. */
+    private final Map<MissKey, long[]> counters = new HashMap<>();
+
+    private final ConcurrentMap<MissKey, AtomicLong> pending = new ConcurrentHashMap<>();
+
+    private final AtomicInteger pendingSize = new AtomicInteger();
+
+    Stripe(int capacity) {
+      this.capacity = capacity;
+    }
+
+    void record(MissKey key) {
+      while (!increment(key)) {
+        // the pending count was merged concurrently, so count the miss in a new one
+      }
+
+      int size = pendingSize.get();
+      if (size >= 2 * capacity) {
+        lock.lock();
+      } else if (size < capacity || !lock.tryLock()) {
+        return;
+      }
+
+      try {
+        merge();
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    /** @return false if the pending count of the pair was merged before it could be incremented */
+    private boolean increment(MissKey key) {
+      AtomicLong count = pending.get(key);
+      if (count == null) {
+        AtomicLong newCount = new AtomicLong();
+        count = pending.putIfAbsent(key, newCount);
+        if (count == null) {
+          count = newCount;
+          pendingSize.incrementAndGet();
+        }
+      }
+
+      long current;
+      do {
+        current = count.get();
+        if (current == MERGED) {
+          return false;
+        }
+      } while (!count.compareAndSet(current, current + 1));
+      return true;
+    }
+
+    /** Moves the pending counts into the slots. Must be called under the lock. */
+    private void merge() {
+      for (Map.Entry<MissKey, AtomicLong> entry : pending.entrySet()) {
+        long count = entry.getValue().getAndSet(MERGED);
+        pending.remove(entry.getKey(), entry.getValue());
+        pendingSize.decrementAndGet();
+        if (count > 0) {
+          add(entry.getKey(), count);
+        }
+      }
+    }
+
+    private void add(MissKey key, long count) {
+      long[] counter = counters.get(key);
+      if (counter != null) {
+        counter[0] += count;
+      } else if (counters.size() < capacity) {
+        counters.put(key, new long[] {count, 0});
+      } else {
+        replaceMinimum(key, count);
+      }
+    }
+
+    private void replaceMinimum(MissKey key, long count) {
+      Map.Entry<MissKey, long[]> minimum = null;
+      for (Map.Entry<MissKey, long[]> entry : counters.entrySet()) {
+        if (minimum == null || entry.getValue()[0] < minimum.getValue()[0]) {
+          minimum = entry;
+        }
+      }
+
+      long minimumCount = minimum.getValue()[0];
+      counters.remove(minimum.getKey());
+      counters.put(key, new long[] {minimumCount + count, minimumCount});
+    }
+
+    void collect(List<Miss> misses) {
+      lock.lock();
+      try {
+        merge();
+        counters.forEach((key, counter) -> misses.add(new Miss(key, counter[0], counter[1])));
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    void clear() {
+      lock.lock();
+      try {
+        merge();
+        counters.clear();
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  private static final class MissKey {
+
+    private final String standardName;
+
+    private final String standardVersion;
+
+    private final String value;
+
+    private final int hashCode;
+
+    MissKey(Standard standard, String value) {
+      this.standardName = standard.getName().toUpperCase(Locale.ROOT);
+      this.standardVersion = standard.getVersion().toUpperCase(Locale.ROOT);
+      this.value = NormalizedKey.normalize(value);
+      this.hashCode = Objects.hash(standardName, standardVersion, this.value);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof MissKey)) {
+        return false;
+      }
+      MissKey other = (MissKey) o;
+      return hashCode == other.hashCode
+          && value.equals(other.value)
+          && standardName.equals(other.standardName)
+          && standardVersion.equals(other.standardVersion);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+}
@@ -0,0 +1,193 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.countrycode.mapping;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.commons.lang3.Validate;
+import org.codice.countrycode.converter.MappingStrategy;
+import org.codice.countrycode.standard.CountryCode;
+import org.codice.countrycode.standard.Standard;
+import org.codice.countrycode.standard.StandardRegistry;
+import org.codice.countrycode.standard.StandardRegistryImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Mapping strategy backed by a CSV mapping file on the file system that is reloaded whenever the
+ * file changes. A background thread watches the file's directory and parses the new file into a
+ * complete {@link CsvMappingStrategy}, which is then published with a single atomic swap. Lookups
+ * never block: each call reads the current mappings once and uses them throughout. If a revised
+ * file fails to parse, the previous mappings stay in use.
+ */
+public class ReloadingMappingStrategy implements MappingStrategy, Closeable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ReloadingMappingStrategy.class);
+
+  /** Changes to the file are collected until it has been quiet for this long. */
+  private static final long SETTLE_MILLIS = 100;
+
+  private final Path file;
+
+  private final StandardRegistry standardRegistry;
+
+  private final AtomicReference<CsvMappingStrategy> currentStrategy;
+
+  private final WatchService watchService;
+
+  private volatile MissTracker missTracker;
+
+  public ReloadingMappingStrategy(Path file) {
+    this(file, StandardRegistryImpl.getInstance());
+  }
+
+  /**
+   * Parses the mapping file and starts watching it for changes.
+   *
+   * @param file path of the mapping file, cannot be null
+   * @param standardRegistry registry of the standards named in the file, cannot be null
+   * @throws IllegalArgumentException if the file can't be read
+   * @throws IllegalStateException if the file can't be parsed or watched
+   */
+  public ReloadingMappingStrategy(Path file, StandardRegistry standardRegistry) {
+    Validate.notNull(file, "argument [file] cannot be null.");
+    Validate.notNull(standardRegistry, "argument [standardRegistry] cannot be null.");
+    this.file = file.toAbsolutePath();
+    this.standardRegistry = standardRegistry;
+    currentStrategy = new AtomicReference<>(new CsvMappingStrategy(this.file, standardRegistry));
+
+    try {
+      watchService = this.file.getFileSystem().newWatchService();
+      this.file.getParent().register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+    } catch (IOException e) {
+      throw new IllegalStateException(String.format("Unable to watch file [%s].", file), e);
+    }
+
+    Thread watcher = new Thread(this::watch, "mapping-reloader-" + this.file.getFileName());
+    watcher.setDaemon(true);
+    watcher.start();
+  }
+
+  /**
+   * Parses the mapping file and, if it is valid, replaces the current mappings with it.
+   *
+   * @return true if the new mappings are in use, false if the file failed to parse
+   */
+  public synchronized boolean reload() {
+    CsvMappingStrategy reloaded;
+    try {
+      reloaded = new CsvMappingStrategy(file, standardRegistry);
+    } catch (RuntimeException e) {
+      LOGGER.error("Failed to reload mappings from [{}]. Keeping previous mappings.", file, e);
+      return false;
+    }
+
+    reloaded.setMissTracker(missTracker);
+    currentStrategy.set(reloaded);
+    LOGGER.debug("Reloaded mappings from [{}].", file);
+    return true;
+  }
+
+  /**
+   * Starts or stops counting the values that have no mapping, across reloads. Tracking is off by
+   * default.
+   *
+   * @param missTracker receives every value without a mapping, or null to stop tracking
+   */
+  public synchronized void setMissTracker(MissTracker missTracker) {
+    this.missTracker = missTracker;
+    currentStrategy.get().setMissTracker(missTracker);
+  }
+
+  /** @return the tracker counting values without a mapping, or null if tracking is off */
+  public MissTracker getMissTracker() {
+    return missTracker;
+  }
+
+  /** @return the mapping strategy holding the mappings currently in use */
+  @Override
+  public MappingStrategy getCurrentStrategy() {
+    return currentStrategy.get();
+  }
+
+  @Override
+  public Set<Set<CountryCode>> getMappings() {
+    return currentStrategy.get().getMappings();
+  }
+
+  @Override
+  public Set<Standard> getMappedStandards() {
+    return currentStrategy.get().getMappedStandards();
+  }
+
+  @Override
+  public Set<CountryCode> getMappingFor(Standard standard, String value) {
+    return currentStrategy.get().getMappingFor(standard, value);
+  }
+
+  @Override
+  public void getMappingsFor(Standard standard, String[] values, Set<CountryCode>[] results) {
+    currentStrategy.get().getMappingsFor(standard, values, results);
+  }
+
+  /** Stops watching the file. The current mappings remain usable. */
+  @Override
+  public void close() throws IOException {
+    watchService.close();
+  }
+
+  private void watch() {
+    try {
+      while (true) {
+        boolean changed = fileChanged(watchService.take());
+        WatchKey next;
+        while ((next = watchService.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+          changed |= fileChanged(next);
+        }
+
+        if (changed) {
+          reload();
+        }
+      }
+    } catch (ClosedWatchServiceException e) {
+      LOGGER.debug("Stopped watching [{}].", file);
+    } catch (InterruptedException e) {
+      LOGGER.debug("Interrupted while watching [{}].", file);
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private boolean fileChanged(WatchKey watchKey) {
+    boolean changed = false;
+    for (WatchEvent<?> event : watchKey.pollEvents()) {
+      if (event.kind() == OVERFLOW || file.getFileName().equals(event.context())) {
+        changed = true;
+      }
+    }
+    watchKey.reset();
+    return changed;
+  }
+}
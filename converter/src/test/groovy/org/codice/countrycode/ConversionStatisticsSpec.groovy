@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.countrycode
+
+import org.codice.countrycode.converter.MappingStrategy
+import org.codice.countrycode.metrics.Metrics
+import org.codice.countrycode.standard.CountryCode
+import org.codice.countrycode.standard.Standard
+import spock.lang.Specification
+
+class ConversionStatisticsSpec extends Specification {
+
+    def standardOne = mockStandard('name1', 'version1')
+
+    def standardTwo = mockStandard('name2', 'version2')
+
+    def 'test conversions are counted as hits and misses'() {
+        given:
+        def statistics = new ConversionStatistics()
+
+        when:
+        statistics.recordConversions(standardOne, standardTwo, 1, 0, 10)
+        statistics.recordConversions(standardOne, standardTwo, 3, 1, 20)
+        statistics.recordConversions(standardTwo, standardOne, 1, 1, 5)
+
+        then:
+        def oneToTwo = statistics.getStatistics(standardOne, standardTwo)
+        oneToTwo.count == 4
+        oneToTwo.hitCount == 3
+        oneToTwo.missCount == 1
+        oneToTwo.hitRate == 0.75d
+        oneToTwo.totalNanos == 30
+        statistics.getStatistics(standardTwo, standardOne).missCount == 1
+        statistics.getStatistics().size() == 2
+    }
+
+    def 'test equal standards are added up'() {
+        given:
+        def statistics = new ConversionStatistics()
+
+        when:
+        statistics.recordConversions(standardOne, standardTwo, 1, 0, 10)
+        statistics.recordConversions(mockStandard('NAME1', 'version1'), standardTwo, 1, 1, 10)
+
+        then:
+        statistics.getStatistics().size() == 2
+        statistics.getStatistics(standardOne, standardTwo).count == 2
+        statistics.getStatistics(standardOne, standardTwo).missCount == 1
+    }
+
+    def 'test unconverted standards and reset statistics are empty'() {
+        given:
+        def statistics = new ConversionStatistics()
+        statistics.recordConversions(standardOne, standardTwo, 1, 0, 10)
+
+        when:
+        statistics.reset()
+
+        then:
+        statistics.getStatistics().isEmpty()
+        statistics.getStatistics(standardOne, standardTwo).count == 0
+        statistics.getStatistics(standardOne, standardTwo).hitRate == 0
+    }
+
+    def 'test converter conversions are counted once installed'() {
+        setup:
+        def cc1 = mockCountryCode(standardOne, 'ABC')
+        def cc2 = mockCountryCode(standardTwo, 'DEF')
+        def mappingStrategy = Mock(MappingStrategy) {
+            getMappings() >> [[cc1, cc2] as Set]
+            getMappedStandards() >> [standardOne, standardTwo]
+        }
+        def converter = new CountryCodeConverter(standardOne, mappingStrategy)
+        def statistics = new ConversionStatistics()
+        Metrics.setMetrics(statistics)
+
+        when:
+        converter.fromAlpha3('ABC', standardOne, standardTwo)
+        converter.fromAlpha3('XYZ', standardOne, standardTwo)
+        converter.convert(['abc', 'DEF'], standardOne, standardTwo)
+
+        then:
+        def oneToTwo = statistics.getStatistics(standardOne, standardTwo)
+        oneToTwo.count == 4
+        oneToTwo.hitCount == 2
+        oneToTwo.missCount == 2
+
+        cleanup:
+        Metrics.setMetrics(null)
+    }
+
+    def mockStandard(String name, String version) {
+        return Mock(Standard) {
+            getName() >> name
+            getVersion() >> version
+            getFormatNames() >> (['alpha3'] as Set)
+        }
+    }
+
+    def mockCountryCode(Standard standard, String alpha3) {
+        return Mock(CountryCode) {
+            getName() >> 'CountryName'
+            getStandard() >> standard
+            getAsFormat('alpha3') >> alpha3
+        }
+    }
+}
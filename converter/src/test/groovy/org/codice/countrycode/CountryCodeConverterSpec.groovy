@@ -14,10 +14,19 @@
 package org.codice.countrycode
 
 import org.codice.countrycode.converter.MappingStrategy
+import org.codice.countrycode.metrics.CountryCodeMetrics
+import org.codice.countrycode.metrics.Metrics
 import org.codice.countrycode.standard.CountryCode
 import org.codice.countrycode.standard.Standard
 import spock.lang.Specification
 
+import java.nio.ByteBuffer
+import java.nio.charset.StandardCharsets
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.stream.Collectors
+
 class CountryCodeConverterSpec extends Specification {
 
     static String STANDARD_NAME_1 = 'name1'
@@ -183,6 +192,337 @@ class CountryCodeConverterSpec extends Specification {
         } == 1
     }
 
+    def 'test repeated conversions return the shared result'() {
+        setup:
+        def standardOne = mockStandard(STANDARD_NAME_1, STANDARD_VERSION_1, [ALPHA_3] as Set)
+        def standardTwo = mockStandard(STANDARD_NAME_2, STANDARD_VERSION_2, [ALPHA_3] as Set)
+
+        def cc1 = mockCountryCode(standardOne, [(ALPHA_3): 'ABC'])
+        def cc2 = mockCountryCode(standardTwo, [(ALPHA_3): 'DEF'])
+
+        mappingStrategy = Mock(MappingStrategy) {
+            getMappings() >> [[cc1, cc2] as Set]
+            getMappedStandards() >> [standardOne, standardTwo]
+        }
+
+        converter = new CountryCodeConverter(standardOne, mappingStrategy)
+
+        when:
+        def first = converter.fromAlpha3('ABC', standardOne, standardTwo)
+        def second = converter.fromAlpha3('abc', standardOne, standardTwo)
+
+        then:
+        first == [cc2] as Set
+        first.is(second)
+        converter.fromAlpha3('XYZ', standardOne, standardTwo).isEmpty()
+        0 * mappingStrategy.getMappingFor(_, _)
+    }
+
+    def 'test conversion of char sequences and encoded values'() {
+        setup:
+        def standardOne = mockStandard(STANDARD_NAME_1, STANDARD_VERSION_1, [ALPHA_3] as Set)
+        def standardTwo = mockStandard(STANDARD_NAME_2, STANDARD_VERSION_2, [ALPHA_3] as Set)
+
+        def cc1 = mockCountryCode(standardOne, [(ALPHA_3): 'ABC'])
+        def cc2 = mockCountryCode(standardTwo, [(ALPHA_3): 'DEF'])
+
+        mappingStrategy = Mock(MappingStrategy) {
+            getMappings() >> [[cc1, cc2] as Set]
+            getMappedStandards() >> [standardOne, standardTwo]
+        }
+
+        converter = new CountryCodeConverter(standardOne, mappingStrategy)
+
+        def bytes = 'xx,abc ,yy'.getBytes(StandardCharsets.UTF_8)
+        def directBuffer = ByteBuffer.allocateDirect(bytes.length).put(bytes)
+        directBuffer.flip()
+
+        expect:
+        converter.fromValue(new StringBuilder('ABC'), standardOne, standardTwo) == [cc2] as Set
+        converter.fromValue(bytes, 3, 4, standardOne, standardTwo) == [cc2] as Set
+        converter.fromValue(ByteBuffer.wrap(bytes), 3, 4, standardOne, standardTwo) == [cc2] as Set
+        converter.fromValue(directBuffer, 3, 4, standardOne, standardTwo) == [cc2] as Set
+        directBuffer.position() == 0
+        converter.fromValue(bytes, 0, 2, standardOne, standardTwo).isEmpty()
+        converter.fromValue((CharSequence) null, standardOne, standardTwo).isEmpty()
+        0 * mappingStrategy.getMappingFor(_, _)
+    }
+
+    def 'test conversion of encoded value out of bounds'() {
+        setup:
+        def standardOne = mockStandard(STANDARD_NAME_1, STANDARD_VERSION_1, [ALPHA_3] as Set)
+        def standardTwo = mockStandard(STANDARD_NAME_2, STANDARD_VERSION_2, [ALPHA_3] as Set)
+
+        mappingStrategy = Mock(MappingStrategy) {
+            getMappings() >> [[mockCountryCode(standardOne, [(ALPHA_3): 'ABC'])] as Set]
+            getMappedStandards() >> [standardOne, standardTwo]
+        }
+
+        converter = new CountryCodeConverter(standardOne, mappingStrategy)
+
+        when:
+        converter.fromValue('ABC'.bytes, 2, 2, standardOne, standardTwo)
+
+        then:
+        thrown(IndexOutOfBoundsException)
+    }
+
+    def 'test single conversion'() {
+        setup:
+        def standardOne = mockStandard(STANDARD_NAME_1, STANDARD_VERSION_1, [ALPHA_3] as Set)
+        def standardTwo = mockStandard(STANDARD_NAME_2, STANDARD_VERSION_2, [ALPHA_3] as Set)
+
+        def cc1 = mockCountryCode(standardOne, [(ALPHA_3): 'ABC'])
+        def cc2 = mockCountryCode(standardTwo, [(ALPHA_3): 'DEF'])
+
+        mappingStrategy = Mock(MappingStrategy) {
+            getMappings() >> [[cc1, cc2] as Set]
+            getMappedStandards() >> [standardOne, standardTwo]
+        }
+
+        converter = new CountryCodeConverter(standardOne, mappingStrategy)
+
+        expect:
+        converter.convertOne(' abc', standardOne, standardTwo) == Optional.of(cc2)
+        converter.convertOne('DEF', standardTwo, standardOne) == Optional.of(cc1)
+        converter.convertOne('XYZ', standardOne, standardTwo) == Optional.empty()
+        converter.convertOne(null, standardOne, standardTwo) == Optional.empty()
+        converter.convertOne('ABC', standardOne, standardTwo)
+                .is(converter.convertOne('ABC', standardOne, standardTwo))
+    }
+
+    def 'test single conversion of value with several conversions fails'() {
+        setup:
+        def standardOne = mockStandard(STANDARD_NAME_1, STANDARD_VERSION_1, [ALPHA_3] as Set)
+        def standardTwo = mockStandard(STANDARD_NAME_2, STANDARD_VERSION_2, [ALPHA_3] as Set)
+
+        def cc1 = mockCountryCode(standardOne, [(ALPHA_3): 'ABC'])
+        def cc2 = mockCountryCode(standardTwo, [(ALPHA_3): 'DEF'])
+        def cc3 = mockCountryCode(standardTwo, [(ALPHA_3): 'GHI'])
+
+        mappingStrategy = Mock(MappingStrategy) {
+            getMappings() >> [[cc1, cc2, cc3] as Set]
+            getMappedStandards() >> [standardOne, standardTwo]
+        }
+
+        converter = new CountryCodeConverter(standardOne, mappingStrategy)
+
+        def metrics = Mock(CountryCodeMetrics)
+        Metrics.setMetrics(metrics)
+
+        when:
+        converter.convertOne('ABC', standardOne, standardTwo)
+
+        then:
+        def e = thrown(IllegalStateException)
+        e.message.contains('[ABC]')
+        e.message.contains('[2]')
+        0 * metrics.recordConversions(*_)
+        converter.convertOne('DEF', standardTwo, standardOne) == Optional.of(cc1)
+
+        cleanup:
+        Metrics.setMetrics(null)
+    }
+
+    def 'test conversions follow replaced mappings'() {
+        setup:
+        def standardOne = mockStandard(STANDARD_NAME_1, STANDARD_VERSION_1, [ALPHA_3] as Set)
+        def standardTwo = mockStandard(STANDARD_NAME_2, STANDARD_VERSION_2, [ALPHA_3] as Set)
+
+        def cc1 = mockCountryCode(standardOne, [(ALPHA_3): 'ABC'])
+        def cc2 = mockCountryCode(standardTwo, [(ALPHA_3): 'DEF'])
+        def cc3 = mockCountryCode(standardTwo, [(ALPHA_3): 'GHI'])
+
+        def initialMappings = Mock(MappingStrategy) {
+            getMappings() >> [[cc1, cc2] as Set]
+            getMappedStandards() >> [standardOne, standardTwo]
+        }
+        def revisedMappings = Mock(MappingStrategy) {
+            getMappings() >> [[cc1, cc3] as Set]
+            getMappedStandards() >> [standardOne, standardTwo]
+        }
+        def current = initialMappings
+        mappingStrategy = Mock(MappingStrategy) {
+            getMappedStandards() >> [standardOne, standardTwo]
+            getCurrentStrategy() >> { current }
+        }
+
+        converter = new CountryCodeConverter(standardOne, mappingStrategy)
+
+        expect:
+        converter.fromAlpha3('ABC', standardOne, standardTwo) == [cc2] as Set
+
+        when:
+        current = revisedMappings
+
+        then:
+        converter.fromAlpha3('ABC', standardOne, standardTwo) == [cc3] as Set
+        converter.getCurrentStrategy().is(revisedMappings)
+    }
+
+    def 'test replaced mappings are converted once by concurrent conversions'() {
+        setup:
+        def standardOne = mockStandard(STANDARD_NAME_1, STANDARD_VERSION_1, [ALPHA_3] as Set)
+        def standardTwo = mockStandard(STANDARD_NAME_2, STANDARD_VERSION_2, [ALPHA_3] as Set)
+
+        def cc1 = mockCountryCode(standardOne, [(ALPHA_3): 'ABC'])
+        def cc2 = mockCountryCode(standardTwo, [(ALPHA_3): 'DEF'])
+        def cc3 = mockCountryCode(standardTwo, [(ALPHA_3): 'GHI'])
+
+        def rebuilds = new AtomicInteger()
+        def initialMappings = Mock(MappingStrategy) {
+            getMappings() >> [[cc1, cc2] as Set]
+            getMappedStandards() >> [standardOne, standardTwo]
+        }
+        def revisedMappings = Mock(MappingStrategy) {
+            getMappings() >> {
+                rebuilds.incrementAndGet()
+                Thread.sleep(50)
+                [[cc1, cc3] as Set]
+            }
+            getMappedStandards() >> [standardOne, standardTwo]
+        }
+        def current = initialMappings
+        mappingStrategy = Mock(MappingStrategy) {
+            getMappedStandards() >> [standardOne, standardTwo]
+            getCurrentStrategy() >> { current }
+        }
+
+        converter = new CountryCodeConverter(standardOne, mappingStrategy)
+        current = revisedMappings
+        def executor = Executors.newFixedThreadPool(8)
+
+        when:
+        def conversions = (1..8).collect {
+            executor.submit({ converter.fromAlpha3('ABC', standardOne, standardTwo) } as Callable)
+        }
+        def results = conversions*.get()
+
+        then:
+        results.every { it == [cc3] as Set }
+        rebuilds.get() == 1
+
+        cleanup:
+        executor.shutdown()
+    }
+
+    def 'test conversions are reported to the installed metrics'() {
+        setup:
+        def standardOne = mockStandard(STANDARD_NAME_1, STANDARD_VERSION_1, [ALPHA_3] as Set)
+        def standardTwo = mockStandard(STANDARD_NAME_2, STANDARD_VERSION_2, [ALPHA_3] as Set)
+
+        def cc1 = mockCountryCode(standardOne, [(ALPHA_3): 'ABC'])
+        def cc2 = mockCountryCode(standardTwo, [(ALPHA_3): 'DEF'])
+
+        mappingStrategy = Mock(MappingStrategy) {
+            getMappings() >> [[cc1, cc2] as Set]
+            getMappedStandards() >> [standardOne, standardTwo]
+        }
+        converter = new CountryCodeConverter(standardOne, mappingStrategy)
+
+        def metrics = Mock(CountryCodeMetrics)
+        Metrics.setMetrics(metrics)
+
+        when:
+        converter.fromAlpha3('ABC', standardOne, standardTwo)
+        converter.fromAlpha3('XYZ', standardOne, standardTwo)
+        converter.convert(['ABC', 'XYZ', 'abc'], standardOne, standardTwo)
+        converter.convert(['ABC'].stream(), standardOne, standardTwo, false).collect(Collectors.toList())
+        converter.convertOne('ABC', standardOne, standardTwo)
+
+        then:
+        3 * metrics.recordConversions(standardOne, standardTwo, 1, 0, { it >= 0 })
+        1 * metrics.recordConversions(standardOne, standardTwo, 1, 1, { it >= 0 })
+        1 * metrics.recordConversions(standardOne, standardTwo, 3, 1, { it >= 0 })
+        3 * metrics.recordMappingLookups(standardOne, 1, 0, { it >= 0 })
+        1 * metrics.recordMappingLookups(standardOne, 1, 1, { it >= 0 })
+        1 * metrics.recordMappingLookups(standardOne, 3, 1, { it >= 0 })
+
+        cleanup:
+        Metrics.setMetrics(null)
+    }
+
+    def 'test batch conversion'() {
+        setup:
+        def standardOne = mockStandard(STANDARD_NAME_1, STANDARD_VERSION_1, [ALPHA_3] as Set)
+        def standardTwo = mockStandard(STANDARD_NAME_2, STANDARD_VERSION_2, [ALPHA_3] as Set)
+
+        def cc1 = mockCountryCode(standardOne, [(ALPHA_3): 'ABC'])
+        def cc2 = mockCountryCode(standardTwo, [(ALPHA_3): 'DEF'])
+
+        mappingStrategy = Mock(MappingStrategy) {
+            getMappings() >> [[cc1, cc2] as Set]
+            getMappedStandards() >> [standardOne, standardTwo]
+        }
+
+        converter = new CountryCodeConverter(standardOne, mappingStrategy)
+
+        def values = (0..<size).collect { it % 2 == 0 ? 'ABC' : 'XYZ' } as String[]
+        def results = new Set[size]
+
+        when:
+        converter.convert(values, standardOne, standardTwo, results)
+        def listResults = converter.convert(values as List, standardOne, standardTwo)
+
+        then:
+        results.every { it != null }
+        results.findAll { it == [cc2] as Set }.size() == size.intdiv(2)
+        results.findAll { it.isEmpty() }.size() == size.intdiv(2)
+        listResults == results as List
+
+        where:
+        size << [10, 20000]
+    }
+
+    def 'test stream conversion'() {
+        setup:
+        def standardOne = mockStandard(STANDARD_NAME_1, STANDARD_VERSION_1, [ALPHA_3] as Set)
+        def standardTwo = mockStandard(STANDARD_NAME_2, STANDARD_VERSION_2, [ALPHA_3] as Set)
+
+        def cc1 = mockCountryCode(standardOne, [(ALPHA_3): 'ABC'])
+        def cc2 = mockCountryCode(standardTwo, [(ALPHA_3): 'DEF'])
+
+        mappingStrategy = Mock(MappingStrategy) {
+            getMappings() >> [[cc1, cc2] as Set]
+            getMappedStandards() >> [standardOne, standardTwo]
+        }
+
+        converter = new CountryCodeConverter(standardOne, mappingStrategy)
+
+        def values = ['ABC', 'XYZ', 'abc']
+
+        when:
+        def fromStream = converter.convert(values.stream(), standardOne, standardTwo, parallel)
+        def fromIterator = converter.convert(values.iterator(), standardOne, standardTwo, parallel)
+
+        then:
+        fromStream.isParallel() == parallel
+        fromIterator.isParallel() == parallel
+        fromStream.collect(Collectors.toList()) == [[cc2] as Set, [] as Set, [cc2] as Set]
+        fromIterator.collect(Collectors.toList()) == [[cc2] as Set, [] as Set, [cc2] as Set]
+
+        where:
+        parallel << [false, true]
+    }
+
+    def 'test batch conversion with short results array'() {
+        setup:
+        def standardOne = mockStandard(STANDARD_NAME_1, STANDARD_VERSION_1, [ALPHA_3] as Set)
+
+        mappingStrategy = Mock(MappingStrategy) {
+            getMappings() >> []
+            getMappedStandards() >> [standardOne]
+        }
+
+        converter = new CountryCodeConverter(standardOne, mappingStrategy)
+
+        when:
+        converter.convert(['ABC', 'DEF'] as String[], standardOne, standardOne, new Set[1])
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
     def 'test default standard unsupported by mapping strategy'() {
         setup:
         def standardOne = mockStandard(STANDARD_NAME_1, STANDARD_VERSION_1, [NUMERIC] as Set)
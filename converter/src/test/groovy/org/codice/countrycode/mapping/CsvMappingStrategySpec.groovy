@@ -13,12 +13,18 @@
  */
 package org.codice.countrycode.mapping
 
+import org.codice.countrycode.CountryCodeConverter
+import org.codice.countrycode.metrics.CountryCodeMetrics
+import org.codice.countrycode.metrics.Metrics
 import org.codice.countrycode.standard.CountryCode
 import org.codice.countrycode.standard.Standard
 import org.codice.countrycode.standard.StandardProvider
 import org.codice.countrycode.standard.StandardRegistry
+import org.codice.countrycode.standards.common.StandardsSnapshot
 import spock.lang.Specification
 
+import java.nio.file.Files
+
 class CsvMappingStrategySpec extends Specification {
 
     static String STANDARD_NAME_1 = 'name1'
@@ -281,6 +287,201 @@ class CsvMappingStrategySpec extends Specification {
         cc2Mappings.containsAll([cc1, cc3])
     }
 
+    def 'test mapping lookup ignores case and surrounding whitespace'() {
+        setup:
+        def cc1 = mockCountryCode(standard1, [(MAPPING_PROPERTY_1): 'value1'])
+        def cc2 = mockCountryCode(standard2, [(MAPPING_PROPERTY_2): 'value2'])
+        def cc3 = mockCountryCode(standard3, [(MAPPING_PROPERTY_3): 'value3'])
+
+        prepareRegistry([cc1] as Set, [cc2] as Set, [cc3] as Set)
+
+        when:
+        csvMappingStrategy = new CsvMappingStrategy('test-configs/valid_config.csv', standardRegistry)
+
+        then:
+        def cc1Mappings = csvMappingStrategy.getMappingFor(standard1, 'VALUE1')
+        cc1Mappings.size() == 2
+        cc1Mappings.containsAll([cc2, cc3])
+        csvMappingStrategy.getMappingFor(standard2, ' Value2\t') == [cc1, cc3] as Set
+    }
+
+    def 'test mapping lookup only matches codes of the given standard'() {
+        setup:
+        def cc1 = mockCountryCode(standard1, [(MAPPING_PROPERTY_1): 'value1'])
+        def cc2 = mockCountryCode(standard2, [(MAPPING_PROPERTY_2): 'value2'])
+        def cc3 = mockCountryCode(standard3, [(MAPPING_PROPERTY_3): 'value3'])
+
+        prepareRegistry([cc1] as Set, [cc2] as Set, [cc3] as Set)
+
+        when:
+        csvMappingStrategy = new CsvMappingStrategy('test-configs/valid_config.csv', standardRegistry)
+
+        then:
+        csvMappingStrategy.getMappingFor(standard1, 'value2').isEmpty()
+        csvMappingStrategy.getMappingFor(standard1, null).isEmpty()
+    }
+
+    def 'test batch mapping lookup'() {
+        setup:
+        def cc1 = mockCountryCode(standard1, [(MAPPING_PROPERTY_1): 'value1'])
+        def cc2 = mockCountryCode(standard2, [(MAPPING_PROPERTY_2): 'value2'])
+        def cc3 = mockCountryCode(standard3, [(MAPPING_PROPERTY_3): 'value3'])
+
+        prepareRegistry([cc1] as Set, [cc2] as Set, [cc3] as Set)
+        csvMappingStrategy = new CsvMappingStrategy('test-configs/valid_config.csv', standardRegistry)
+
+        def values = (0..<size).collect { it % 2 == 0 ? 'value1' : 'value2' } as String[]
+        def results = new Set[size]
+
+        when:
+        csvMappingStrategy.getMappingsFor(standard1, values, results)
+
+        then:
+        results.findAll { it == [cc2, cc3] as Set }.size() == size.intdiv(2)
+        results.findAll { it.isEmpty() }.size() == size.intdiv(2)
+
+        where:
+        size << [10, 20000]
+    }
+
+    def 'test loads and lookups are reported to the installed metrics'() {
+        setup:
+        def cc1 = mockCountryCode(standard1, [(MAPPING_PROPERTY_1): 'value1'])
+        def cc2 = mockCountryCode(standard2, [(MAPPING_PROPERTY_2): 'value2'])
+        def cc3 = mockCountryCode(standard3, [(MAPPING_PROPERTY_3): 'value3'])
+
+        prepareRegistry([cc1] as Set, [cc2] as Set, [cc3] as Set)
+
+        def metrics = Mock(CountryCodeMetrics)
+        Metrics.setMetrics(metrics)
+
+        when:
+        csvMappingStrategy = new CsvMappingStrategy('test-configs/valid_config.csv', standardRegistry)
+        csvMappingStrategy.getMappingFor(standard1, 'value1')
+        csvMappingStrategy.getMappingFor(standard1, 'unknown')
+        csvMappingStrategy.getMappingsFor(standard1, ['value1', 'unknown'] as String[], new Set[2])
+
+        then:
+        1 * metrics.recordMappingLoad('test-configs/valid_config.csv', { it >= 0 })
+        1 * metrics.recordMappingLookups(standard1, 1, 0, { it >= 0 })
+        1 * metrics.recordMappingLookups(standard1, 1, 1, { it >= 0 })
+        1 * metrics.recordMappingLookups(standard1, 2, 1, { it >= 0 })
+
+        cleanup:
+        Metrics.setMetrics(null)
+    }
+
+    def 'test default mappings are reported as loaded from the snapshot'() {
+        setup:
+        def metrics = Mock(CountryCodeMetrics)
+        Metrics.setMetrics(metrics)
+
+        when:
+        new CsvMappingStrategy()
+
+        then:
+        1 * metrics.recordMappingLoad(CsvMappingStrategy.SNAPSHOT_FILE_PATH, { it > 0 })
+        0 * metrics.recordMappingLoad(CsvMappingStrategy.DEFAULT_FILE_PATH, _)
+
+        cleanup:
+        Metrics.setMetrics(null)
+    }
+
+    def 'test values without a mapping are tracked when enabled'() {
+        setup:
+        def cc1 = mockCountryCode(standard1, [(MAPPING_PROPERTY_1): 'value1'])
+        def cc2 = mockCountryCode(standard2, [(MAPPING_PROPERTY_2): 'value2'])
+        def cc3 = mockCountryCode(standard3, [(MAPPING_PROPERTY_3): 'value3'])
+
+        prepareRegistry([cc1] as Set, [cc2] as Set, [cc3] as Set)
+        csvMappingStrategy = new CsvMappingStrategy('test-configs/valid_config.csv', standardRegistry)
+        def unknownStandard = mockStandard('unknown', 'version', [MAPPING_PROPERTY_1] as Set)
+
+        expect:
+        csvMappingStrategy.getMissTracker() == null
+        csvMappingStrategy.getMappingFor(standard1, 'missing').isEmpty()
+
+        when:
+        def tracker = new MissTracker()
+        csvMappingStrategy.setMissTracker(tracker)
+        csvMappingStrategy.getMappingFor(standard1, 'value1')
+        csvMappingStrategy.getMappingFor(standard1, 'missing')
+        csvMappingStrategy.getMappingFor(unknownStandard, 'value1')
+        csvMappingStrategy.getMappingsFor(standard1, ['value1', 'MISSING'] as String[], new Set[2])
+
+        then:
+        csvMappingStrategy.getMissTracker().is(tracker)
+        tracker.getTopMisses(10).collect { [it.standardName, it.value, it.count] } as Set ==
+                [[STANDARD_NAME_1.toUpperCase(), 'MISSING', 2], ['UNKNOWN', 'VALUE1', 1]] as Set
+    }
+
+    def 'test values a converter cannot convert are tracked'() {
+        setup:
+        def cc1 = mockCountryCode(standard1, [(MAPPING_PROPERTY_1): 'value1'])
+        def cc2 = mockCountryCode(standard2, [(MAPPING_PROPERTY_2): 'value2'])
+        def cc3 = mockCountryCode(standard3, [(MAPPING_PROPERTY_3): 'value3'])
+
+        prepareRegistry([cc1] as Set, [cc2] as Set, [cc3] as Set)
+        csvMappingStrategy = new CsvMappingStrategy('test-configs/valid_config.csv', standardRegistry)
+        def converter = new CountryCodeConverter(standard1, csvMappingStrategy)
+        def tracker = new MissTracker()
+        csvMappingStrategy.setMissTracker(tracker)
+
+        when:
+        converter.fromValue('value1', standard1, standard2)
+        converter.fromValue('missing', standard1, standard2)
+        converter.fromValue('missing'.getBytes('US-ASCII'), 0, 7, standard1, standard2)
+        converter.convertOne('Missing', standard1, standard2)
+        converter.convert(['value1', 'other'], standard1, standard2)
+        converter.convert(['other'].stream(), standard1, standard2, false).toArray()
+
+        then:
+        tracker.getTopMisses(10).collect { [it.standardName, it.value, it.count] } ==
+                [[STANDARD_NAME_1.toUpperCase(), 'MISSING', 3], [STANDARD_NAME_1.toUpperCase(), 'OTHER', 2]]
+    }
+
+    def 'test mappings are restored from a snapshot'() {
+        setup:
+        def cc1 = mockCountryCode(standard1, [(MAPPING_PROPERTY_1): 'value1'])
+        def cc2 = mockCountryCode(standard2, [(MAPPING_PROPERTY_2): 'value2'])
+        def cc3 = mockCountryCode(standard3, [(MAPPING_PROPERTY_3): 'value3'])
+
+        prepareRegistry([cc1] as Set, [cc2] as Set, [cc3] as Set)
+        def snapshot = new ByteArrayOutputStream()
+        new CsvMappingStrategy('test-configs/valid_config.csv', standardRegistry).writeSnapshot(snapshot)
+
+        when:
+        csvMappingStrategy = new CsvMappingStrategy('test-configs/valid_config.csv', standardRegistry,
+                StandardsSnapshot.read(new ByteArrayInputStream(snapshot.toByteArray())))
+
+        then:
+        csvMappingStrategy.getMappedStandards()*.getName() as Set ==
+                [STANDARD_NAME_1, STANDARD_NAME_2, STANDARD_NAME_3] as Set
+
+        def cc1Mappings = csvMappingStrategy.getMappingFor(standard1, 'value1')
+        cc1Mappings*.getName() == ['CountryName', 'CountryName']
+        cc1Mappings.collect { it.getAsFormat(MAPPING_PROPERTY_2) ?: it.getAsFormat(MAPPING_PROPERTY_3) } as Set ==
+                ['value2', 'value3'] as Set
+    }
+
+    def 'test generated snapshot holds the default mappings'() {
+        setup:
+        def snapshotFile = Files.createTempFile('standards', '.snapshot')
+
+        when:
+        StandardsSnapshotGenerator.main([snapshotFile.toString()] as String[])
+        def snapshot = snapshotFile.withInputStream { StandardsSnapshot.read(it) }
+        def parsed = new CsvMappingStrategy(CsvMappingStrategy.DEFAULT_FILE_PATH)
+
+        then:
+        snapshot.getMappings().size() == parsed.getMappings().size()
+        snapshot.getMappedColumns()*.getFormatName() == ['alpha2', 'alpha3', 'alpha3']
+        snapshot.getStandardProviders()*.getStandardEntries()*.size() == [271, 280, 249]
+
+        cleanup:
+        Files.deleteIfExists(snapshotFile)
+    }
+
     void prepareRegistry(Set provider1Codes = [], Set provider2Codes = [], Set provider3Codes = []) {
         standardRegistry = Mock(StandardRegistry)
         standardRegistry.lookup(STANDARD_NAME_1, STANDARD_VERSION_1) >> mockStandardProvider(standard1, provider1Codes)
@@ -292,6 +493,9 @@ class CsvMappingStrategySpec extends Specification {
         return Mock(StandardProvider) {
             getStandard() >> standard
             getStandardEntries() >> entries
+            getStandardEntry(_ as String, _ as String) >> { String formatName, String value ->
+                entries.find { it.getAsFormat(formatName) == value }
+            }
         }
     }
 
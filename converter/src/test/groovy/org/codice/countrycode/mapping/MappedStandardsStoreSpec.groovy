@@ -0,0 +1,165 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.countrycode.mapping
+
+import org.codice.countrycode.CountryCodeConverter
+import org.codice.countrycode.standard.Standard
+import org.codice.countrycode.standard.StandardProvider
+import org.codice.countrycode.standard.StandardRegistry
+import org.codice.countrycode.standards.common.CountryCodeBuilder
+import spock.lang.Specification
+
+import java.nio.file.Files
+
+class MappedStandardsStoreSpec extends Specification {
+
+    def standard1 = mockStandard('name1', 'version1', 'property1')
+
+    def standard2 = mockStandard('name2', 'version2', 'property2')
+
+    def standard3 = mockStandard('name3', 'version3', 'property3')
+
+    def storeFile = Files.createTempFile('standards', '.store')
+
+    MappedStandardsStore store
+
+    def setup() {
+        def providers = [
+                name1: mockStandardProvider(standard1, ['value1', 'Zed']),
+                name2: mockStandardProvider(standard2, ['value2']),
+                name3: mockStandardProvider(standard3, ['value3'])
+        ]
+        def standardRegistry = Mock(StandardRegistry) {
+            lookup(_ as String, _ as String) >> { String name, String version -> providers[name] }
+        }
+
+        MappedStandardsStore.write(storeFile, new CsvMappingStrategy('test-configs/valid_config.csv', standardRegistry))
+        store = MappedStandardsStore.open(storeFile)
+    }
+
+    def cleanup() {
+        Files.deleteIfExists(storeFile)
+    }
+
+    def 'test mapping lookup ignores case'() {
+        when:
+        def mappings = store.getMappingStrategy().getMappingFor(standard1, 'VALUE1')
+
+        then:
+        mappings*.getName() as Set == ['name2 value2', 'name3 value3'] as Set
+        mappings.collect { it.getStandard().getName() } as Set == ['name2', 'name3'] as Set
+    }
+
+    def 'test mapping lookup of unknown values and standards is empty'() {
+        expect:
+        store.getMappingStrategy().getMappingFor(standard1, 'value2').isEmpty()
+        store.getMappingStrategy().getMappingFor(standard1, 'Zed').isEmpty()
+        store.getMappingStrategy().getMappingFor(standard1, null).isEmpty()
+        store.getMappingStrategy().getMappingFor(mockStandard('other', 'version', 'property1'), 'value1').isEmpty()
+    }
+
+    def 'test mapped standards and mappings'() {
+        expect:
+        store.getMappingStrategy().getMappedStandards()*.getName() == ['name1', 'name2', 'name3']
+        store.getMappingStrategy().getMappings().size() == 1
+        store.getMappingStrategy().getMappings()[0]*.getName() as Set ==
+                ['name1 value1', 'name2 value2', 'name3 value3'] as Set
+    }
+
+    def 'test provider entries are views over the store'() {
+        when:
+        def provider = store.getStandardProviders()[0]
+
+        then:
+        provider.getStandard().getName() == 'name1'
+        provider.getStandard().getVersion() == 'version1'
+        provider.getStandard().getFormatNames() == ['property1'] as Set
+        provider.getStandardEntries()*.getName() as Set == ['name1 value1', 'name1 Zed'] as Set
+        provider.getStandardEntry('property1', 'Zed').getName() == 'name1 Zed'
+        provider.getStandardEntry('property1', 'Zed') == provider.getStandardEntry('property1', 'Zed')
+        provider.getStandardEntry('property1', ' ZED ').getName() == 'name1 Zed'
+        provider.getStandardEntry('other', 'Zed') == null
+        provider.getStandardEntry('property1', 'Zed').getAsFormat('property1') == 'Zed'
+        provider.getStandardEntry('property1', 'Zed').getAsFormat('other') == null
+    }
+
+    def 'test provider entries equal built codes'() {
+        when:
+        def entry = store.getStandardProviders()[0].getStandardEntry('property1', 'Zed')
+        def built = new CountryCodeBuilder(standard1, 'name1 Zed').formatValue('property1', 'Zed').build()
+
+        then:
+        entry == built
+        built == entry
+        entry.hashCode() == built.hashCode()
+        entry != new CountryCodeBuilder(standard1, 'name1 Zed').formatValue('property1', 'value1').build()
+    }
+
+    def 'test indexed mapping lookup'() {
+        expect:
+        store.getMappingStrategy().getMappingFor(standard1, ' VALUE1 ', standard2)*.getName() == ['name2 value2']
+        store.getMappingStrategy().getMappingFor(standard2, 'value2', standard3)*.getName() == ['name3 value3']
+        store.getMappingStrategy().getMappingFor(standard1, 'value1', standard1)*.getName() == ['name1 value1']
+        store.getMappingStrategy().getMappingFor(standard1, 'Zed', standard2).isEmpty()
+        store.getMappingStrategy().getMappingFor(standard1, 'Zed', standard1).isEmpty()
+        store.getMappingStrategy().getMappingFor(standard1, 'value1', mockStandard('other', 'version', 'property1')).isEmpty()
+    }
+
+    def 'test converter looks conversions up in the store'() {
+        setup:
+        def converter = new CountryCodeConverter(standard1, store.getMappingStrategy())
+
+        when:
+        def converted = converter.fromValue('value1', standard1, standard3)
+
+        then:
+        converted*.getName() == ['name3 value3']
+        converter.fromValue('value1'.getBytes('US-ASCII'), 0, 6, standard1, standard2)*.getName() == ['name2 value2']
+        converter.convertOne('value2', standard2, standard1).get().getName() == 'name1 value1'
+        converter.fromValue('Zed', standard1, standard2).isEmpty()
+    }
+
+    def 'test opening a file that is not a store fails'() {
+        setup:
+        Files.write(storeFile, new byte[64])
+
+        when:
+        MappedStandardsStore.open(storeFile)
+
+        then:
+        thrown(IOException)
+    }
+
+    def mockStandard(String name, String version, String formatName) {
+        return Mock(Standard) {
+            getName() >> name
+            getVersion() >> version
+            getFormatNames() >> ([formatName] as Set)
+        }
+    }
+
+    def mockStandardProvider(Standard standard, List values) {
+        def formatName = standard.getFormatNames().first()
+        def entries = values.collect {
+            new CountryCodeBuilder(standard, "${standard.getName()} ${it}").formatValue(formatName, it).build()
+        } as Set
+        return Mock(StandardProvider) {
+            getStandard() >> standard
+            getStandardEntries() >> entries
+            getStandardEntry(_ as String, _ as String) >> { String format, String value ->
+                entries.find { it.getAsFormat(format) == value }
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.countrycode.mapping
+
+import org.codice.countrycode.standard.Standard
+import spock.lang.Specification
+
+class MissTrackerSpec extends Specification {
+
+    def standard = Mock(Standard) {
+        getName() >> 'name'
+        getVersion() >> 'version'
+    }
+
+    def 'test misses are counted ignoring case'() {
+        given:
+        def tracker = new MissTracker()
+
+        when:
+        tracker.record(standard, 'abc')
+        tracker.record(standard, 'ABC')
+        tracker.record(standard, 'def')
+        tracker.record(standard, null)
+
+        then:
+        def misses = tracker.getTopMisses(10)
+        misses*.value == ['ABC', 'DEF']
+        misses*.count == [2, 1]
+        misses*.error == [0, 0]
+        misses.every { it.standardName == 'NAME' && it.standardVersion == 'VERSION' }
+    }
+
+    def 'test frequent misses are kept when the tracker is full'() {
+        given:
+        def tracker = new MissTracker(64)
+
+        when:
+        (1..1000).each {
+            tracker.record(standard, 'HOT')
+            tracker.record(standard, "COLD$it")
+        }
+
+        then:
+        def top = tracker.getTopMisses(1).first()
+        top.value == 'HOT'
+        top.count - top.error <= 1000
+        top.count >= 1000
+        tracker.getTopMisses(100).size() == 64
+    }
+
+    def 'test misses recorded concurrently are all counted'() {
+        given:
+        def tracker = new MissTracker(64)
+        def threads = (1..8).collect { n ->
+            Thread.start {
+                10000.times {
+                    tracker.record(standard, 'HOT')
+                    tracker.record(standard, "COLD$n-$it")
+                }
+            }
+        }
+
+        when:
+        threads*.join()
+
+        then:
+        def top = tracker.getTopMisses(1).first()
+        top.value == 'HOT'
+        top.count - top.error <= 80000
+        top.count >= 80000
+    }
+
+    def 'test top misses are limited'() {
+        given:
+        def tracker = new MissTracker()
+        (1..5).each { n -> n.times { tracker.record(standard, "V$n") } }
+
+        expect:
+        tracker.getTopMisses(2)*.value == ['V5', 'V4']
+    }
+
+    def 'test top misses count cannot be negative'() {
+        when:
+        new MissTracker().getTopMisses(-1)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    def 'test reset forgets misses'() {
+        given:
+        def tracker = new MissTracker()
+        tracker.record(standard, 'abc')
+
+        when:
+        tracker.reset()
+
+        then:
+        tracker.getTopMisses(10).isEmpty()
+    }
+
+    def 'test capacity must cover every stripe'() {
+        when:
+        new MissTracker(1)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+}
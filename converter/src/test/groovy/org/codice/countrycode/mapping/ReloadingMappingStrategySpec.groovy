@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.countrycode.mapping
+
+import org.codice.countrycode.standards.fips.FipsStandard
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.nio.file.Files
+import java.nio.file.Path
+
+class ReloadingMappingStrategySpec extends Specification {
+
+    static String HEADER = 'FIPS:10-4,ISO3166:1\nalpha2,alpha2\n'
+
+    def fips = new FipsStandard()
+
+    Path directory = Files.createTempDirectory('mappings')
+
+    Path file = directory.resolve('mappings.csv')
+
+    ReloadingMappingStrategy strategy
+
+    def cleanup() {
+        strategy?.close()
+        directory.toFile().deleteDir()
+    }
+
+    def 'test mappings are reloaded when the file changes'() {
+        given:
+        file.text = HEADER + 'AF,AF\n'
+        strategy = new ReloadingMappingStrategy(file)
+        def initial = strategy.getCurrentStrategy()
+
+        expect:
+        strategy.getMappingFor(fips, 'AF')*.name == ['Afghanistan']
+        strategy.getMappingFor(fips, 'AL').isEmpty()
+
+        when:
+        file.text = HEADER + 'AF,AF\nAL,AL\n'
+
+        then:
+        new PollingConditions(timeout: 30).eventually {
+            assert strategy.getMappingFor(fips, 'AL')*.name == ['Albania']
+        }
+        !strategy.getCurrentStrategy().is(initial)
+    }
+
+    def 'test invalid file keeps the previous mappings'() {
+        given:
+        file.text = HEADER + 'AF,AF\n'
+        strategy = new ReloadingMappingStrategy(file)
+        def initial = strategy.getCurrentStrategy()
+
+        when:
+        file.text = 'not a mapping file\n'
+
+        then:
+        !strategy.reload()
+        strategy.getCurrentStrategy().is(initial)
+        strategy.getMappingFor(fips, 'AF')*.name == ['Afghanistan']
+    }
+
+    def 'test reload publishes new mappings'() {
+        given:
+        file.text = HEADER + 'AF,AF\n'
+        strategy = new ReloadingMappingStrategy(file)
+        strategy.close()
+
+        when:
+        file.text = HEADER + 'AL,AL\n'
+
+        then:
+        strategy.reload()
+        strategy.getMappingFor(fips, 'AF').isEmpty()
+        strategy.getMappingFor(fips, 'AL')*.name == ['Albania']
+    }
+
+    def 'test miss tracking carries over reloads'() {
+        given:
+        file.text = HEADER + 'AF,AF\n'
+        strategy = new ReloadingMappingStrategy(file)
+        strategy.close()
+        def tracker = new MissTracker()
+        strategy.setMissTracker(tracker)
+
+        when:
+        strategy.getMappingFor(fips, 'AL')
+        file.text = HEADER + 'AF,AF\n'
+        strategy.reload()
+        strategy.getMappingFor(fips, 'al')
+
+        then:
+        strategy.getMissTracker().is(tracker)
+        tracker.getTopMisses(1).first().count == 2
+    }
+
+    def 'test missing file'() {
+        when:
+        new ReloadingMappingStrategy(directory.resolve('missing.csv'))
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.countrycode.standards.common;
+
+import java.util.Locale;
+import java.util.Objects;
+import org.apache.commons.lang3.StringUtils;
+import org.codice.countrycode.standard.CountryCode;
+import org.codice.countrycode.standard.Standard;
+
+/**
+ * Base for {@link CountryCode}s, such as those built by {@link CountryCodeBuilder}, that gives them
+ * value equality. Two codes are equal when their standards have the same name and version,
+ * ignoring case, and they have the same name and the same value for every format of the standard,
+ * whichever implementation they are. The hash code is computed once and cached.
+ */
+public abstract class AbstractCountryCode implements CountryCode {
+
+  private int hashCode;
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof AbstractCountryCode)) {
+      return false;
+    }
+
+    AbstractCountryCode other = (AbstractCountryCode) o;
+    if (hashCode() != other.hashCode()
+        || !getName().equals(other.getName())
+        || !StandardUtils.equalStandards(getStandard(), other.getStandard())) {
+      return false;
+    }
+
+    for (String formatName : getStandard().getFormatNames()) {
+      if (!Objects.equals(getAsFormat(formatName), other.getAsFormat(formatName))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    int h = hashCode;
+    if (h == 0) {
+      Standard standard = getStandard();
+      h = StringUtils.upperCase(standard.getName(), Locale.ROOT).hashCode();
+      h = 31 * h + Objects.hashCode(StringUtils.upperCase(standard.getVersion(), Locale.ROOT));
+      h = 31 * h + getName().hashCode();
+
+      // summed so that the hash does not depend on the iteration order of the format names
+      int formatsHash = 0;
+      for (String formatName : standard.getFormatNames()) {
+        formatsHash += formatName.hashCode() ^ Objects.hashCode(getAsFormat(formatName));
+      }
+      h = 31 * h + formatsHash;
+      hashCode = h;
+    }
+    return h;
+  }
+}
@@ -0,0 +1,237 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.countrycode.standards.common;
+
+import com.google.common.base.MoreObjects;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.codice.countrycode.standard.CountryCode;
+import org.codice.countrycode.standard.Standard;
+
+/**
+ * {@link CountryCode} that packs the fixed-width alpha2, alpha3 and numeric formats into
+ * primitives instead of holding a map of format values. An alpha2 code is stored as two ASCII
+ * characters in a {@code short}, an alpha3 code as three ASCII characters in an {@code int} and a
+ * three digit numeric code as its value plus one in a {@code short}. Zero marks a missing format.
+ */
+final class CompactCountryCode extends AbstractCountryCode {
+
+  static final String ALPHA_2 = "alpha2";
+
+  static final String ALPHA_3 = "alpha3";
+
+  static final String NUMERIC = "numeric";
+
+  private static final String[] FORMAT_NAMES = {ALPHA_2, ALPHA_3, NUMERIC};
+
+  private static final int ALPHA_2_INDEX = 0;
+
+  private static final int ALPHA_3_INDEX = 1;
+
+  private static final int NUMERIC_INDEX = 2;
+
+  private static final int NUMERIC_LENGTH = 3;
+
+  private final Standard standard;
+
+  private final String name;
+
+  private final short alpha2;
+
+  private final int alpha3;
+
+  private final short numeric;
+
+  private CompactCountryCode(
+      Standard standard, String name, short alpha2, int alpha3, short numeric) {
+    this.standard = standard;
+    this.name = name;
+    this.alpha2 = alpha2;
+    this.alpha3 = alpha3;
+    this.numeric = numeric;
+  }
+
+  /**
+   * Creates a compact country code if every format value can be packed.
+   *
+   * @return the country code, or null if any format is not one of alpha2, alpha3 or numeric, or
+   *     if any value does not fit the fixed width of its format
+   */
+  static CountryCode of(Standard standard, String name, Map<String, String> formatValues) {
+    short alpha2 = 0;
+    int alpha3 = 0;
+    short numeric = 0;
+
+    for (Map.Entry<String, String> entry : formatValues.entrySet()) {
+      String value = entry.getValue();
+      if (value == null) {
+        continue;
+      }
+
+      switch (formatIndex(entry.getKey())) {
+        case ALPHA_2_INDEX:
+          alpha2 = (short) packAscii(value, 2);
+          if (alpha2 == 0) {
+            return null;
+          }
+          break;
+        case ALPHA_3_INDEX:
+          alpha3 = packAscii(value, 3);
+          if (alpha3 == 0) {
+            return null;
+          }
+          break;
+        case NUMERIC_INDEX:
+          numeric = packNumeric(value);
+          if (numeric == 0) {
+            return null;
+          }
+          break;
+        default:
+          return null;
+      }
+    }
+
+    return new CompactCountryCode(standard, name, alpha2, alpha3, numeric);
+  }
+
+  @Override
+  public String getAsFormat(String formatName) {
+    switch (formatIndex(formatName)) {
+      case ALPHA_2_INDEX:
+        return unpackAscii(alpha2 & 0xFFFF, 2);
+      case ALPHA_3_INDEX:
+        return unpackAscii(alpha3, 3);
+      case NUMERIC_INDEX:
+        return unpackNumeric(numeric);
+      default:
+        return null;
+    }
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public Standard getStandard() {
+    return standard;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (!(o instanceof CompactCountryCode)) {
+      return super.equals(o);
+    }
+
+    CompactCountryCode other = (CompactCountryCode) o;
+    return this == other
+        || (alpha2 == other.alpha2
+            && alpha3 == other.alpha3
+            && numeric == other.numeric
+            && name.equals(other.name)
+            && StandardUtils.equalStandards(standard, other.standard));
+  }
+
+  @Override
+  public int hashCode() {
+    return super.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    Map<String, String> formatValues = new LinkedHashMap<>();
+    for (String formatName : FORMAT_NAMES) {
+      String value = getAsFormat(formatName);
+      if (value != null) {
+        formatValues.put(formatName, value);
+      }
+    }
+
+    return MoreObjects.toStringHelper(this)
+        .add("standard", String.format("%s %s", standard.getName(), standard.getVersion()))
+        .add("name", name)
+        .add("formatValues", formatValues)
+        .toString();
+  }
+
+  private static int formatIndex(String formatName) {
+    for (int i = 0; i < FORMAT_NAMES.length; i++) {
+      if (FORMAT_NAMES[i].equals(formatName)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /** @return the characters packed 8 bits each, or 0 if the value cannot be packed */
+  private static int packAscii(String value, int length) {
+    if (value.length() != length) {
+      return 0;
+    }
+
+    int packed = 0;
+    for (int i = 0; i < length; i++) {
+      char c = value.charAt(i);
+      if (c == 0 || c > 0x7F) {
+        return 0;
+      }
+      packed = (packed << 8) | c;
+    }
+    return packed;
+  }
+
+  private static String unpackAscii(int packed, int length) {
+    if (packed == 0) {
+      return null;
+    }
+
+    char[] chars = new char[length];
+    for (int i = length - 1; i >= 0; i--) {
+      chars[i] = (char) (packed & 0xFF);
+      packed >>>= 8;
+    }
+    return new String(chars);
+  }
+
+  /** @return the numeric value plus one, or 0 if the value is not exactly three digits */
+  private static short packNumeric(String value) {
+    if (value.length() != NUMERIC_LENGTH) {
+      return 0;
+    }
+
+    int packed = 0;
+    for (int i = 0; i < NUMERIC_LENGTH; i++) {
+      char c = value.charAt(i);
+      if (c < '0' || c > '9') {
+        return 0;
+      }
+      packed = packed * 10 + (c - '0');
+    }
+    return (short) (packed + 1);
+  }
+
+  private static String unpackNumeric(short packed) {
+    if (packed == 0) {
+      return null;
+    }
+
+    int value = packed - 1;
+    return new String(
+        new char[] {
+          (char) ('0' + value / 100), (char) ('0' + value / 10 % 10), (char) ('0' + value % 10)
+        });
+  }
+}
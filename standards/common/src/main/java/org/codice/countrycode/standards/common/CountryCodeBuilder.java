@@ -14,6 +14,7 @@
 package org.codice.countrycode.standards.common;
 
 import com.google.common.base.MoreObjects;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import org.apache.commons.lang3.Validate;
@@ -53,11 +54,23 @@ public class CountryCodeBuilder {
     return this;
   }
 
+  /**
+   * Builds the country code. Codes whose formats are all fixed-width alpha2, alpha3 or numeric
+   * values are packed into a compact representation. Built codes are equal to any other built code
+   * with the same standard, name and format values.
+   *
+   * @return the immutable country code
+   */
   public CountryCode build() {
-    return new CountryCodeImpl(standard, name, formatValues);
+    CountryCode compactCountryCode = CompactCountryCode.of(standard, name, formatValues);
+    if (compactCountryCode != null) {
+      return compactCountryCode;
+    }
+    return new CountryCodeImpl(
+        standard, name, Collections.unmodifiableMap(new HashMap<>(formatValues)));
   }
 
-  private class CountryCodeImpl implements CountryCode {
+  private static class CountryCodeImpl extends AbstractCountryCode {
 
     private final Standard standard;
 
@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.countrycode.standards.common;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import org.codice.countrycode.standard.CountryCode;
+import org.codice.countrycode.standard.Standard;
+
+/**
+ * Immutable set of the {@link CountryCode}s of a standard together with an index of each code by
+ * its format values. Providers build it once when loading, so {@link
+ * org.codice.countrycode.standard.StandardProvider#getStandardEntries()} can return the same set on
+ * every call and lookups by format value are a hash probe. Format values are matched on their
+ * {@link NormalizedKey normalized} form.
+ */
+public class CountryCodeIndex {
+
+  private final Set<CountryCode> countryCodes;
+
+  private final Map<String, NormalizedKeyMap<CountryCode>> countryCodesByFormat;
+
+  /**
+   * @param standard the standard whose formats are indexed, cannot be null
+   * @param countryCodes the country codes of the standard
+   */
+  public CountryCodeIndex(Standard standard, Collection<CountryCode> countryCodes) {
+    this.countryCodes = ImmutableSet.copyOf(countryCodes);
+
+    ImmutableMap.Builder<String, NormalizedKeyMap<CountryCode>> byFormatBuilder =
+        ImmutableMap.builder();
+    for (String formatName : standard.getFormatNames()) {
+      Map<String, CountryCode> byValue = new LinkedHashMap<>();
+      for (CountryCode countryCode : this.countryCodes) {
+        String formatValue = countryCode.getAsFormat(formatName);
+        if (formatValue != null) {
+          byValue.putIfAbsent(formatValue, countryCode);
+        }
+      }
+      byFormatBuilder.put(formatName, new NormalizedKeyMap<>(byValue));
+    }
+    countryCodesByFormat = byFormatBuilder.build();
+  }
+
+  /** @return the immutable set of indexed country codes */
+  public Set<CountryCode> getCountryCodes() {
+    return countryCodes;
+  }
+
+  /**
+   * Looks up the country code whose value in the given format equals {@code value}, ignoring case
+   * and surrounding whitespace.
+   *
+   * @return the country code, or null if there is none
+   */
+  public CountryCode get(String formatName, CharSequence value) {
+    NormalizedKeyMap<CountryCode> byValue = countryCodesByFormat.get(formatName);
+    if (byValue == null || value == null) {
+      return null;
+    }
+    return byValue.get(value);
+  }
+}
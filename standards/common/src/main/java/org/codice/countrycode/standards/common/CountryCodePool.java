@@ -0,0 +1,77 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.countrycode.standards.common;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.commons.lang3.Validate;
+import org.codice.countrycode.standard.CountryCode;
+import org.codice.countrycode.standard.Standard;
+
+/**
+ * Intern pool of the {@link CountryCode}s of a single {@link Standard}. Interning returns the one
+ * canonical instance of each logical code, so codes taken from the same pool can be compared by
+ * reference.
+ *
+ * <p>Canonical instances are shared by all pools, so a code loaded from several sources, such as
+ * a provider's data file and the standards snapshot, is only held once. Codes no pool refers to
+ * any more are not kept alive by the sharing.
+ */
+public class CountryCodePool {
+
+  private static final Interner<CountryCode> SHARED_COUNTRY_CODES = Interners.newWeakInterner();
+
+  private final Standard standard;
+
+  private final Map<CountryCode, CountryCode> countryCodes = new ConcurrentHashMap<>();
+
+  /** @param standard the standard of the country codes in this pool, cannot be null */
+  public CountryCodePool(Standard standard) {
+    Validate.notNull(standard, "Country code pool standard may not be null");
+    this.standard = standard;
+  }
+
+  /**
+   * Returns the canonical instance of a country code, adding it to this pool if there is none yet.
+   *
+   * @param countryCode the country code to intern, must have this pool's standard
+   * @return the canonical country code equal to {@code countryCode}
+   */
+  public CountryCode intern(CountryCode countryCode) {
+    Validate.isTrue(
+        StandardUtils.equalStandards(standard, countryCode.getStandard()),
+        "Country code standard [%s %s] does not match pool standard [%s %s].",
+        countryCode.getStandard().getName(),
+        countryCode.getStandard().getVersion(),
+        standard.getName(),
+        standard.getVersion());
+
+    CountryCode shared = SHARED_COUNTRY_CODES.intern(countryCode);
+    CountryCode canonical = countryCodes.putIfAbsent(shared, shared);
+    return canonical == null ? shared : canonical;
+  }
+
+  /** @return an unmodifiable view of the canonical country codes in this pool */
+  public Set<CountryCode> getCountryCodes() {
+    return Collections.unmodifiableSet(countryCodes.keySet());
+  }
+
+  public Standard getStandard() {
+    return standard;
+  }
+}
@@ -0,0 +1,322 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.countrycode.standards.common;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Pull reader for a JSON array of objects, such as the ISO 3166-1 and FIPS 10-4 code files. Each
+ * object is read field by field straight from the stream, so no document string or intermediate
+ * objects are built. Scalar values are returned as their text; nested objects and arrays can only
+ * be skipped.
+ *
+ * <pre>{@code
+ * while (reader.nextObject()) {
+ *   String field;
+ *   while ((field = reader.nextName()) != null) {
+ *     String value = reader.nextValue();
+ *   }
+ * }
+ * }</pre>
+ */
+public final class JsonObjectArrayReader implements Closeable {
+
+  private static final int BUFFER_SIZE = 8192;
+
+  private static final int EOF = -1;
+
+  private final Reader reader;
+
+  private final char[] buffer = new char[BUFFER_SIZE];
+
+  private final StringBuilder text = new StringBuilder();
+
+  private int position;
+
+  private int limit;
+
+  private boolean arrayStarted;
+
+  private boolean arrayEnded;
+
+  private int objectCount;
+
+  private boolean inObject;
+
+  private int fieldCount;
+
+  private boolean valuePending;
+
+  /** Creates a reader over UTF-8 encoded JSON. */
+  public JsonObjectArrayReader(InputStream inputStream) {
+    this(new InputStreamReader(Validate.notNull(inputStream), StandardCharsets.UTF_8));
+  }
+
+  public JsonObjectArrayReader(Reader reader) {
+    this.reader = Validate.notNull(reader);
+  }
+
+  /**
+   * Moves to the next object of the array, skipping whatever is left of the current one.
+   *
+   * @return true if positioned on a new object, false when the array has ended
+   * @throws IOException if the input can't be read or isn't an array of objects
+   */
+  public boolean nextObject() throws IOException {
+    if (inObject) {
+      while (nextName() != null) {
+        skipValue();
+      }
+    }
+
+    if (arrayEnded) {
+      return false;
+    }
+
+    if (!arrayStarted) {
+      expect('[');
+      arrayStarted = true;
+    }
+
+    int c = nextNonWhitespace();
+    if (c == ']') {
+      arrayEnded = true;
+      return false;
+    }
+    if (objectCount > 0) {
+      if (c != ',') {
+        throw syntaxError("',' or ']'", c);
+      }
+      c = nextNonWhitespace();
+    }
+    if (c != '{') {
+      throw syntaxError("'{'", c);
+    }
+
+    objectCount++;
+    inObject = true;
+    fieldCount = 0;
+    return true;
+  }
+
+  /**
+   * Reads the name of the next field of the current object. Its value must be consumed with {@link
+   * #nextValue()} or {@link #skipValue()} before asking for the next name.
+   *
+   * @return the field name, or null once the current object has ended
+   * @throws IOException if the input can't be read or is malformed
+   */
+  public String nextName() throws IOException {
+    if (!inObject) {
+      return null;
+    }
+    if (valuePending) {
+      skipValue();
+    }
+
+    int c = nextNonWhitespace();
+    if (c == '}') {
+      inObject = false;
+      return null;
+    }
+    if (fieldCount > 0) {
+      if (c != ',') {
+        throw syntaxError("',' or '}'", c);
+      }
+      c = nextNonWhitespace();
+    }
+    if (c != '"') {
+      throw syntaxError("field name", c);
+    }
+
+    String name = readString();
+    expect(':');
+    fieldCount++;
+    valuePending = true;
+    return name;
+  }
+
+  /**
+   * Reads the value of the field just named.
+   *
+   * @return the string contents or the literal text of a number or boolean; null for a JSON null
+   *     or a nested object or array, which is skipped
+   * @throws IOException if the input can't be read or is malformed
+   */
+  public String nextValue() throws IOException {
+    Validate.validState(valuePending, "No field name has been read");
+    valuePending = false;
+
+    int c = nextNonWhitespace();
+    switch (c) {
+      case '"':
+        return readString();
+      case '{':
+      case '[':
+        skipNested(c);
+        return null;
+      case EOF:
+        throw syntaxError("value", c);
+      default:
+        String literal = readLiteral(c);
+        return "null".equals(literal) ? null : literal;
+    }
+  }
+
+  /** Skips the value of the field just named. */
+  public void skipValue() throws IOException {
+    nextValue();
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+
+  private String readString() throws IOException {
+    text.setLength(0);
+    while (true) {
+      int c = read();
+      switch (c) {
+        case '"':
+          return text.toString();
+        case '\\':
+          text.append(readEscape());
+          break;
+        case EOF:
+          throw syntaxError("'\"'", c);
+        default:
+          text.append((char) c);
+      }
+    }
+  }
+
+  private char readEscape() throws IOException {
+    int c = read();
+    switch (c) {
+      case '"':
+      case '\\':
+      case '/':
+        return (char) c;
+      case 'b':
+        return '\b';
+      case 'f':
+        return '\f';
+      case 'n':
+        return '\n';
+      case 'r':
+        return '\r';
+      case 't':
+        return '\t';
+      case 'u':
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+          int digit = Character.digit(read(), 16);
+          if (digit < 0) {
+            throw new IOException("Invalid unicode escape in JSON string");
+          }
+          value = (value << 4) | digit;
+        }
+        return (char) value;
+      default:
+        throw syntaxError("escape character", c);
+    }
+  }
+
+  private String readLiteral(int first) throws IOException {
+    text.setLength(0);
+    int c = first;
+    while (c != EOF && c != ',' && c != '}' && c != ']' && !isWhitespace(c)) {
+      text.append((char) c);
+      c = read();
+    }
+    if (c != EOF) {
+      position--;
+    }
+    return text.toString();
+  }
+
+  private void skipNested(int open) throws IOException {
+    int depth = 1;
+    while (depth > 0) {
+      int c = read();
+      if (c == '{' || c == '[') {
+        depth++;
+      } else if (c == '}' || c == ']') {
+        depth--;
+      } else if (c == '"') {
+        skipString();
+      } else if (c == EOF) {
+        throw syntaxError(open == '{' ? "'}'" : "']'", c);
+      }
+    }
+  }
+
+  private void skipString() throws IOException {
+    while (true) {
+      int c = read();
+      if (c == '"') {
+        return;
+      } else if (c == '\\') {
+        read();
+      } else if (c == EOF) {
+        throw syntaxError("'\"'", c);
+      }
+    }
+  }
+
+  private void expect(char expected) throws IOException {
+    int c = nextNonWhitespace();
+    if (c != expected) {
+      throw syntaxError("'" + expected + "'", c);
+    }
+  }
+
+  private int nextNonWhitespace() throws IOException {
+    int c;
+    do {
+      c = read();
+    } while (isWhitespace(c));
+    return c;
+  }
+
+  private int read() throws IOException {
+    if (position == limit) {
+      limit = reader.read(buffer, 0, buffer.length);
+      position = 0;
+      if (limit <= 0) {
+        limit = 0;
+        return EOF;
+      }
+    }
+    return buffer[position++];
+  }
+
+  private static boolean isWhitespace(int c) {
+    return c == ' ' || c == '\n' || c == '\r' || c == '\t' || c == '\uFEFF';
+  }
+
+  private static IOException syntaxError(String expected, int actual) {
+    return new IOException(
+        String.format(
+            "Malformed JSON: expected %s but found %s",
+            expected, actual == EOF ? "end of input" : "'" + (char) actual + "'"));
+  }
+}
@@ -0,0 +1,225 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.countrycode.standards.common;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Canonical form of the format values country codes are indexed and looked up by: upper case, with
+ * leading and trailing whitespace and control characters removed. Every index of format values is
+ * keyed on this form, so lookups behave the same everywhere.
+ *
+ * <p>Values of up to {@link #MAX_PACKED_LENGTH} ASCII characters, which covers every alpha and
+ * numeric code, can also be packed into a {@code long} straight from a {@link CharSequence}
+ * without allocating. Each normalized character takes one byte, so two values pack to the same
+ * key exactly when their normalized forms are equal. Values can be packed from UTF-8 or ASCII bytes
+ * too, so codes read out of a buffer can be looked up without decoding them first.
+ */
+public final class NormalizedKey {
+
+  /** The most characters a normalized value can have to be packed. */
+  public static final int MAX_PACKED_LENGTH = 7;
+
+  /** Returned by {@link #pack(CharSequence)} for values that cannot be packed. */
+  public static final long UNPACKABLE = -1L;
+
+  private NormalizedKey() {}
+
+  /**
+   * Packs the normalized form of a value into a key.
+   *
+   * @param value the value to pack, cannot be null
+   * @return the packed key, or {@link #UNPACKABLE} if the normalized value is longer than {@link
+   *     #MAX_PACKED_LENGTH} or is not ASCII
+   */
+  public static long pack(CharSequence value) {
+    int start = 0;
+    int end = value.length();
+    while (start < end && value.charAt(start) <= ' ') {
+      start++;
+    }
+    while (end > start && value.charAt(end - 1) <= ' ') {
+      end--;
+    }
+
+    if (end - start > MAX_PACKED_LENGTH) {
+      return UNPACKABLE;
+    }
+
+    long key = 0;
+    for (int i = start; i < end; i++) {
+      int c = packChar(value.charAt(i));
+      if (c < 0) {
+        return UNPACKABLE;
+      }
+      key = (key << 8) | c;
+    }
+    return key;
+  }
+
+  /**
+   * Packs the normalized form of a UTF-8 encoded value into a key.
+   *
+   * @param value the array holding the encoded value, cannot be null
+   * @param offset the index of the first byte of the value
+   * @param length the number of bytes of the value
+   * @return the packed key, or {@link #UNPACKABLE} if the normalized value is longer than {@link
+   *     #MAX_PACKED_LENGTH} or is not ASCII
+   * @throws IndexOutOfBoundsException if the value is not within the array
+   */
+  public static long pack(byte[] value, int offset, int length) {
+    checkBounds(offset, length, value.length);
+    int start = offset;
+    int end = offset + length;
+    while (start < end && (value[start] & 0xFF) <= ' ') {
+      start++;
+    }
+    while (end > start && (value[end - 1] & 0xFF) <= ' ') {
+      end--;
+    }
+
+    if (end - start > MAX_PACKED_LENGTH) {
+      return UNPACKABLE;
+    }
+
+    long key = 0;
+    for (int i = start; i < end; i++) {
+      int c = packChar(value[i] & 0xFF);
+      if (c < 0) {
+        return UNPACKABLE;
+      }
+      key = (key << 8) | c;
+    }
+    return key;
+  }
+
+  /**
+   * Packs the normalized form of a UTF-8 encoded value into a key. The value is read with absolute
+   * gets, so the position and limit of the buffer are left unchanged.
+   *
+   * @param value the buffer holding the encoded value, cannot be null
+   * @param offset the index in the buffer of the first byte of the value
+   * @param length the number of bytes of the value
+   * @return the packed key, or {@link #UNPACKABLE} if the normalized value is longer than {@link
+   *     #MAX_PACKED_LENGTH} or is not ASCII
+   * @throws IndexOutOfBoundsException if the value is not within the limit of the buffer
+   */
+  public static long pack(ByteBuffer value, int offset, int length) {
+    checkBounds(offset, length, value.limit());
+    if (value.hasArray()) {
+      return pack(value.array(), value.arrayOffset() + offset, length);
+    }
+
+    int start = offset;
+    int end = offset + length;
+    while (start < end && (value.get(start) & 0xFF) <= ' ') {
+      start++;
+    }
+    while (end > start && (value.get(end - 1) & 0xFF) <= ' ') {
+      end--;
+    }
+
+    if (end - start > MAX_PACKED_LENGTH) {
+      return UNPACKABLE;
+    }
+
+    long key = 0;
+    for (int i = start; i < end; i++) {
+      int c = packChar(value.get(i) & 0xFF);
+      if (c < 0) {
+        return UNPACKABLE;
+      }
+      key = (key << 8) | c;
+    }
+    return key;
+  }
+
+  /**
+   * Returns the normalized form of a value. A string that is already normalized is returned as is.
+   *
+   * @param value the value to normalize, cannot be null
+   * @return the value trimmed and upper-cased
+   */
+  public static String normalize(CharSequence value) {
+    return value.toString().trim().toUpperCase(Locale.ROOT);
+  }
+
+  /** @return true if both values are null or their normalized forms are equal */
+  public static boolean equal(CharSequence first, CharSequence second) {
+    if (first == null || second == null) {
+      return first == second;
+    }
+
+    long firstKey = pack(first);
+    if (firstKey != UNPACKABLE) {
+      return firstKey == pack(second);
+    }
+    return normalize(first).equals(normalize(second));
+  }
+
+  /**
+   * Returns the normalized form of a UTF-8 encoded value.
+   *
+   * @param value the array holding the encoded value, cannot be null
+   * @param offset the index of the first byte of the value
+   * @param length the number of bytes of the value
+   * @return the value decoded, trimmed and upper-cased
+   * @throws IndexOutOfBoundsException if the value is not within the array
+   */
+  public static String normalize(byte[] value, int offset, int length) {
+    checkBounds(offset, length, value.length);
+    return normalize(new String(value, offset, length, StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Returns the normalized form of a UTF-8 encoded value.
+   *
+   * @param value the buffer holding the encoded value, cannot be null
+   * @param offset the index in the buffer of the first byte of the value
+   * @param length the number of bytes of the value
+   * @return the value decoded, trimmed and upper-cased
+   * @throws IndexOutOfBoundsException if the value is not within the limit of the buffer
+   */
+  public static String normalize(ByteBuffer value, int offset, int length) {
+    checkBounds(offset, length, value.limit());
+    if (value.hasArray()) {
+      return normalize(value.array(), value.arrayOffset() + offset, length);
+    }
+
+    byte[] bytes = new byte[length];
+    for (int i = 0; i < length; i++) {
+      bytes[i] = value.get(offset + i);
+    }
+    return normalize(new String(bytes, StandardCharsets.UTF_8));
+  }
+
+  /** @return the upper-cased character as a byte, or -1 if it is not ASCII */
+  static int packChar(int c) {
+    if (c >= 0x80) {
+      return -1;
+    }
+    return c >= 'a' && c <= 'z' ? c - ('a' - 'A') : c;
+  }
+
+  private static void checkBounds(int offset, int length, int size) {
+    if (offset < 0 || length < 0 || offset > size - length) {
+      throw new IndexOutOfBoundsException(
+          String.format(
+              "Value at offset [%d] of length [%d] is out of bounds for size [%d].",
+              offset, length, size));
+    }
+  }
+}
@@ -0,0 +1,169 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.countrycode.standards.common;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable map from format values to values, keyed on their {@link NormalizedKey normalized}
+ * form. Values that pack into a {@code long} are held in an open-addressing table of primitive
+ * keys, so looking one up from a {@link CharSequence} neither allocates nor hashes a string; the
+ * rare values that don't pack are held in a map of their normalized strings. Values can also be
+ * looked up straight from their UTF-8 bytes, in which case a string is only decoded for values
+ * that don't pack.
+ *
+ * @param <V> the type of the mapped values
+ */
+public final class NormalizedKeyMap<V> {
+
+  private static final NormalizedKeyMap<?> EMPTY = new NormalizedKeyMap<>(Collections.emptyMap());
+
+  private final long[] keys;
+
+  private final Object[] values;
+
+  private final int mask;
+
+  private final Map<String, V> unpackedValues;
+
+  private final int size;
+
+  /**
+   * Builds the map from the given entries. When several keys have the same normalized form, the
+   * first one in iteration order wins.
+   *
+   * @param entries the entries to map, whose keys and values cannot be null
+   */
+  public NormalizedKeyMap(Map<? extends CharSequence, ? extends V> entries) {
+    int capacity = Integer.highestOneBit(Math.max(entries.size(), 1) * 2 - 1) << 1;
+    keys = new long[capacity];
+    values = new Object[capacity];
+    mask = capacity - 1;
+
+    Map<String, V> unpacked = new HashMap<>();
+    int count = 0;
+    for (Map.Entry<? extends CharSequence, ? extends V> entry : entries.entrySet()) {
+      long key = NormalizedKey.pack(entry.getKey());
+      if (key == NormalizedKey.UNPACKABLE) {
+        if (unpacked.putIfAbsent(NormalizedKey.normalize(entry.getKey()), entry.getValue())
+            == null) {
+          count++;
+        }
+      } else if (put(key, entry.getValue())) {
+        count++;
+      }
+    }
+
+    unpackedValues = unpacked.isEmpty() ? Collections.emptyMap() : unpacked;
+    size = count;
+  }
+
+  @SuppressWarnings("unchecked")
+  public static <V> NormalizedKeyMap<V> empty() {
+    return (NormalizedKeyMap<V>) EMPTY;
+  }
+
+  /**
+   * @param value the value to look up, ignoring case and surrounding whitespace
+   * @return the mapped value, or null if there is none or {@code value} is null
+   */
+  public V get(CharSequence value) {
+    if (value == null) {
+      return null;
+    }
+
+    long key = NormalizedKey.pack(value);
+    if (key == NormalizedKey.UNPACKABLE) {
+      return unpackedValues.isEmpty() ? null : unpackedValues.get(NormalizedKey.normalize(value));
+    }
+    return get(key);
+  }
+
+  /**
+   * @param value the array holding the UTF-8 encoded value to look up, cannot be null
+   * @param offset the index of the first byte of the value
+   * @param length the number of bytes of the value
+   * @return the mapped value, or null if there is none
+   * @throws IndexOutOfBoundsException if the value is not within the array
+   */
+  public V get(byte[] value, int offset, int length) {
+    long key = NormalizedKey.pack(value, offset, length);
+    if (key == NormalizedKey.UNPACKABLE) {
+      return unpackedValues.isEmpty()
+          ? null
+          : unpackedValues.get(NormalizedKey.normalize(value, offset, length));
+    }
+    return get(key);
+  }
+
+  /**
+   * @param value the buffer holding the UTF-8 encoded value to look up, cannot be null; its
+   *     position and limit are left unchanged
+   * @param offset the index in the buffer of the first byte of the value
+   * @param length the number of bytes of the value
+   * @return the mapped value, or null if there is none
+   * @throws IndexOutOfBoundsException if the value is not within the limit of the buffer
+   */
+  public V get(ByteBuffer value, int offset, int length) {
+    long key = NormalizedKey.pack(value, offset, length);
+    if (key == NormalizedKey.UNPACKABLE) {
+      return unpackedValues.isEmpty()
+          ? null
+          : unpackedValues.get(NormalizedKey.normalize(value, offset, length));
+    }
+    return get(key);
+  }
+
+  /**
+   * @param packedKey a key packed by {@link NormalizedKey}
+   * @return the mapped value, or null if there is none
+   */
+  @SuppressWarnings("unchecked")
+  public V get(long packedKey) {
+    for (int slot = slot(packedKey); ; slot = (slot + 1) & mask) {
+      Object value = values[slot];
+      if (value == null || keys[slot] == packedKey) {
+        return (V) value;
+      }
+    }
+  }
+
+  /** @return the number of mapped values */
+  public int size() {
+    return size;
+  }
+
+  /** @return true if the key was not mapped yet */
+  private boolean put(long packedKey, V value) {
+    int slot = slot(packedKey);
+    while (values[slot] != null) {
+      if (keys[slot] == packedKey) {
+        return false;
+      }
+      slot = (slot + 1) & mask;
+    }
+
+    keys[slot] = packedKey;
+    values[slot] = value;
+    return true;
+  }
+
+  private int slot(long packedKey) {
+    long hash = packedKey * 0x9E3779B97F4A7C15L;
+    return (int) (hash >>> 32) & mask;
+  }
+}
@@ -32,10 +32,16 @@ public class StandardUtils {
   }
 
   public static boolean containsFormatValue(CountryCode countryCode, String value) {
-    return countryCode
-        .getStandard()
-        .getFormatNames()
-        .stream()
-        .anyMatch(formatName -> countryCode.getAsFormat(formatName).equalsIgnoreCase(value));
+    if (value == null) {
+      return false;
+    }
+
+    for (String formatName : countryCode.getStandard().getFormatNames()) {
+      String formatValue = countryCode.getAsFormat(formatName);
+      if (formatValue != null && NormalizedKey.equal(formatValue, value)) {
+        return true;
+      }
+    }
+    return false;
   }
 }
@@ -0,0 +1,339 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.countrycode.standards.common;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.io.ByteStreams;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.codice.countrycode.standard.CountryCode;
+import org.codice.countrycode.standard.Standard;
+import org.codice.countrycode.standard.StandardProvider;
+
+/**
+ * Compact binary snapshot of a set of standards, their country codes and the mappings between
+ * them. A snapshot is written once at build time from the parsed data files and read back at
+ * runtime with a single read of the whole resource, without any JSON, XML or CSV parsing. Decoded
+ * codes are interned with a {@link CountryCodePool}, so they are shared with any provider that
+ * loads the same codes from its data file.
+ *
+ * <p>The layout is a header of {@link #MAGIC} and {@link #FORMAT_VERSION}, followed by the
+ * standards, each with its name, version, format names and entries; then the mapped columns, each
+ * a standard index and a format name; then the mappings, each a list of (standard index, entry
+ * index) references. Strings are written in modified UTF-8 and a missing format value is written
+ * as a {@code false} presence flag.
+ */
+public final class StandardsSnapshot {
+
+  /** "CCSS", marks a country code standards snapshot. */
+  private static final int MAGIC = 0x43435353;
+
+  private static final int FORMAT_VERSION = 1;
+
+  private final List<StandardProvider> standardProviders;
+
+  private final List<MappedColumn> mappedColumns;
+
+  private final List<Set<CountryCode>> mappings;
+
+  private StandardsSnapshot(
+      List<StandardProvider> standardProviders,
+      List<MappedColumn> mappedColumns,
+      List<Set<CountryCode>> mappings) {
+    this.standardProviders = standardProviders;
+    this.mappedColumns = mappedColumns;
+    this.mappings = mappings;
+  }
+
+  /** @return providers of the standards in this snapshot, in the order they were written */
+  public List<StandardProvider> getStandardProviders() {
+    return standardProviders;
+  }
+
+  /** @return the mapped columns, in the order they were written */
+  public List<MappedColumn> getMappedColumns() {
+    return mappedColumns;
+  }
+
+  /** @return the mappings, each a set of country codes of this snapshot's providers */
+  public List<Set<CountryCode>> getMappings() {
+    return mappings;
+  }
+
+  /**
+   * Writes a snapshot. Every country code of {@code mappings} must be an entry of one of the
+   * providers of {@code columns}.
+   *
+   * @param outputStream stream to write to, not closed by this method
+   * @param columns the mapped columns
+   * @param mappings the mappings between the codes of the columns' providers
+   * @throws IOException if the snapshot could not be written
+   * @throws IllegalArgumentException if a mapping has a code that no provider has
+   */
+  public static void write(
+      OutputStream outputStream,
+      List<MappedColumn> columns,
+      Collection<? extends Set<CountryCode>> mappings)
+      throws IOException {
+    Set<StandardProvider> providerSet = new LinkedHashSet<>();
+    columns.forEach(column -> providerSet.add(column.getStandardProvider()));
+    List<StandardProvider> providers = new ArrayList<>(providerSet);
+
+    DataOutputStream out = new DataOutputStream(outputStream);
+    out.writeInt(MAGIC);
+    out.writeInt(FORMAT_VERSION);
+
+    Map<CountryCode, int[]> references = new HashMap<>();
+    out.writeInt(providers.size());
+    for (int standardIndex = 0; standardIndex < providers.size(); standardIndex++) {
+      StandardProvider provider = providers.get(standardIndex);
+      Standard standard = provider.getStandard();
+      List<String> formatNames = new ArrayList<>(standard.getFormatNames());
+
+      out.writeUTF(standard.getName());
+      out.writeUTF(standard.getVersion());
+      out.writeInt(formatNames.size());
+      for (String formatName : formatNames) {
+        out.writeUTF(formatName);
+      }
+
+      Set<CountryCode> entries = provider.getStandardEntries();
+      out.writeInt(entries.size());
+      int entryIndex = 0;
+      for (CountryCode countryCode : entries) {
+        out.writeUTF(countryCode.getName());
+        for (String formatName : formatNames) {
+          String formatValue = countryCode.getAsFormat(formatName);
+          out.writeBoolean(formatValue != null);
+          if (formatValue != null) {
+            out.writeUTF(formatValue);
+          }
+        }
+        references.putIfAbsent(countryCode, new int[] {standardIndex, entryIndex++});
+      }
+    }
+
+    out.writeInt(columns.size());
+    for (MappedColumn column : columns) {
+      out.writeInt(providers.indexOf(column.getStandardProvider()));
+      out.writeUTF(column.getFormatName());
+    }
+
+    out.writeInt(mappings.size());
+    for (Set<CountryCode> mapping : mappings) {
+      out.writeInt(mapping.size());
+      for (CountryCode countryCode : mapping) {
+        int[] reference = references.get(countryCode);
+        if (reference == null) {
+          throw new IllegalArgumentException(
+              String.format("Mapped country code [%s] is not provided by any standard.", countryCode));
+        }
+        out.writeInt(reference[0]);
+        out.writeInt(reference[1]);
+      }
+    }
+    out.flush();
+  }
+
+  /**
+   * Reads a snapshot written by {@link #write(OutputStream, List, Collection)}, with a stand-in for
+   * each of its standards.
+   *
+   * @see #read(InputStream, Collection)
+   */
+  public static StandardsSnapshot read(InputStream inputStream) throws IOException {
+    return read(inputStream, Collections.emptySet());
+  }
+
+  /**
+   * Reads a snapshot written by {@link #write(OutputStream, List, Collection)}. The stream is read
+   * fully into memory before it is decoded.
+   *
+   * <p>Each standard of the snapshot is resolved to the known standard with the same name and
+   * version, ignoring case, so the decoded codes and providers have the same standard instances as
+   * those loaded from the data files. Only a standard that matches none of them gets a stand-in.
+   *
+   * @param inputStream stream to read from, not closed by this method
+   * @param knownStandards the standards to resolve the snapshot's standards against, such as those
+   *     of a registry
+   * @return the snapshot
+   * @throws IOException if the stream could not be read or does not hold a supported snapshot
+   */
+  public static StandardsSnapshot read(InputStream inputStream, Collection<Standard> knownStandards)
+      throws IOException {
+    DataInputStream in =
+        new DataInputStream(new ByteArrayInputStream(ByteStreams.toByteArray(inputStream)));
+
+    if (in.readInt() != MAGIC) {
+      throw new IOException("Not a country code standards snapshot.");
+    }
+    int formatVersion = in.readInt();
+    if (formatVersion != FORMAT_VERSION) {
+      throw new IOException(
+          String.format("Unsupported standards snapshot version [%d].", formatVersion));
+    }
+
+    int standardCount = in.readInt();
+    List<StandardProvider> providers = new ArrayList<>(standardCount);
+    List<List<CountryCode>> entriesByStandard = new ArrayList<>(standardCount);
+    for (int i = 0; i < standardCount; i++) {
+      String name = in.readUTF();
+      String version = in.readUTF();
+      String[] formatNames = new String[in.readInt()];
+      for (int f = 0; f < formatNames.length; f++) {
+        formatNames[f] = in.readUTF();
+      }
+      Standard standard =
+          resolveStandard(
+              new SnapshotStandard(name, version, ImmutableSet.copyOf(formatNames)),
+              knownStandards);
+
+      int entryCount = in.readInt();
+      List<CountryCode> entries = new ArrayList<>(entryCount);
+      CountryCodePool countryCodePool = new CountryCodePool(standard);
+      for (int e = 0; e < entryCount; e++) {
+        CountryCodeBuilder builder = new CountryCodeBuilder(standard, in.readUTF());
+        for (String formatName : formatNames) {
+          if (in.readBoolean()) {
+            builder.formatValue(formatName, in.readUTF());
+          }
+        }
+        entries.add(countryCodePool.intern(builder.build()));
+      }
+
+      entriesByStandard.add(entries);
+      providers.add(new SnapshotStandardProvider(standard, entries));
+    }
+
+    int columnCount = in.readInt();
+    ImmutableList.Builder<MappedColumn> columns = ImmutableList.builder();
+    for (int i = 0; i < columnCount; i++) {
+      columns.add(new MappedColumn(providers.get(in.readInt()), in.readUTF()));
+    }
+
+    int mappingCount = in.readInt();
+    ImmutableList.Builder<Set<CountryCode>> mappings = ImmutableList.builder();
+    for (int i = 0; i < mappingCount; i++) {
+      int size = in.readInt();
+      ImmutableSet.Builder<CountryCode> mapping = ImmutableSet.builder();
+      for (int c = 0; c < size; c++) {
+        mapping.add(entriesByStandard.get(in.readInt()).get(in.readInt()));
+      }
+      mappings.add(mapping.build());
+    }
+
+    return new StandardsSnapshot(ImmutableList.copyOf(providers), columns.build(), mappings.build());
+  }
+
+  private static Standard resolveStandard(
+      Standard snapshotStandard, Collection<Standard> knownStandards) {
+    for (Standard knownStandard : knownStandards) {
+      if (StandardUtils.equalStandards(knownStandard, snapshotStandard)) {
+        return knownStandard;
+      }
+    }
+    return snapshotStandard;
+  }
+
+  /** A mapped column: the provider of a standard and the format its codes are mapped by. */
+  public static final class MappedColumn {
+
+    private final StandardProvider standardProvider;
+
+    private final String formatName;
+
+    public MappedColumn(StandardProvider standardProvider, String formatName) {
+      this.standardProvider = standardProvider;
+      this.formatName = formatName;
+    }
+
+    public StandardProvider getStandardProvider() {
+      return standardProvider;
+    }
+
+    public String getFormatName() {
+      return formatName;
+    }
+  }
+
+  private static final class SnapshotStandard implements Standard {
+
+    private final String name;
+
+    private final String version;
+
+    private final Set<String> formatNames;
+
+    SnapshotStandard(String name, String version, Set<String> formatNames) {
+      this.name = name;
+      this.version = version;
+      this.formatNames = formatNames;
+    }
+
+    @Override
+    public String getName() {
+      return name;
+    }
+
+    @Override
+    public String getVersion() {
+      return version;
+    }
+
+    @Override
+    public Set<String> getFormatNames() {
+      return formatNames;
+    }
+  }
+
+  private static final class SnapshotStandardProvider implements StandardProvider {
+
+    private final Standard standard;
+
+    private final CountryCodeIndex standardEntries;
+
+    SnapshotStandardProvider(Standard standard, List<CountryCode> entries) {
+      this.standard = standard;
+      this.standardEntries = new CountryCodeIndex(standard, entries);
+    }
+
+    @Override
+    public Standard getStandard() {
+      return standard;
+    }
+
+    @Override
+    public Set<CountryCode> getStandardEntries() {
+      return standardEntries.getCountryCodes();
+    }
+
+    @Override
+    public CountryCode getStandardEntry(String formatName, String value) {
+      return standardEntries.get(formatName, value);
+    }
+  }
+}
@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.countrycode.standards.common
+
+import org.codice.countrycode.standard.Standard
+import spock.lang.Specification
+
+class CountryCodeBuilderSpec extends Specification {
+
+    def standard = Mock(Standard) {
+        getName() >> 'name'
+        getVersion() >> 'version'
+        getFormatNames() >> (['alpha2', 'alpha3', 'numeric', 'other'] as Set)
+    }
+
+    def 'test fixed-width formats are packed'() {
+        when:
+        def countryCode = new CountryCodeBuilder(standard, 'Afghanistan')
+                .formatValue('alpha2', 'AF')
+                .formatValue('alpha3', 'AFG')
+                .formatValue('numeric', '004')
+                .build()
+
+        then:
+        countryCode instanceof CompactCountryCode
+        countryCode.getName() == 'Afghanistan'
+        countryCode.getStandard() == standard
+        countryCode.getAsFormat('alpha2') == 'AF'
+        countryCode.getAsFormat('alpha3') == 'AFG'
+        countryCode.getAsFormat('numeric') == '004'
+        countryCode.getAsFormat('other') == null
+    }
+
+    def 'test missing formats are null'() {
+        when:
+        def countryCode = new CountryCodeBuilder(standard, 'Afghanistan')
+                .formatValue('alpha2', 'AF')
+                .formatValue('numeric', null)
+                .build()
+
+        then:
+        countryCode instanceof CompactCountryCode
+        countryCode.getAsFormat('alpha2') == 'AF'
+        countryCode.getAsFormat('alpha3') == null
+        countryCode.getAsFormat('numeric') == null
+    }
+
+    def 'test values that cannot be packed fall back to a format map'() {
+        when:
+        def countryCode = new CountryCodeBuilder(standard, 'Afghanistan')
+                .formatValue(format, value)
+                .build()
+
+        then:
+        !(countryCode instanceof CompactCountryCode)
+        countryCode.getAsFormat(format) == value
+
+        where:
+        format    | value
+        'alpha2'  | 'AFG'
+        'alpha3'  | 'AF'
+        'alpha3'  | 'AÉG'
+        'numeric' | '4'
+        'numeric' | '0A4'
+        'other'   | 'value'
+    }
+
+    def 'test built country codes have value equality'() {
+        given:
+        def otherStandard = Mock(Standard) {
+            getName() >> 'NAME'
+            getVersion() >> 'VERSION'
+            getFormatNames() >> (['alpha2', 'alpha3', 'numeric', 'other'] as Set)
+        }
+
+        when:
+        def first = new CountryCodeBuilder(standard, 'Afghanistan')
+                .formatValue(format, value)
+                .build()
+        def second = new CountryCodeBuilder(otherStandard, 'Afghanistan')
+                .formatValue(format, value)
+                .build()
+        def different = new CountryCodeBuilder(standard, 'Afghanistan')
+                .formatValue(format, differentValue)
+                .build()
+
+        then:
+        !first.is(second)
+        first == second
+        first.hashCode() == second.hashCode()
+        first != different
+        ([first, second, different] as Set).size() == 2
+
+        where:
+        format   | value   | differentValue
+        'alpha2' | 'AF'    | 'AG'
+        'alpha3' | 'AFG'   | 'AFH'
+        'other'  | 'value' | 'other value'
+    }
+
+    def 'test country codes with different names are not equal'() {
+        expect:
+        new CountryCodeBuilder(standard, 'Afghanistan').formatValue('alpha2', 'AF').build() !=
+                new CountryCodeBuilder(standard, 'Aruba').formatValue('alpha2', 'AF').build()
+    }
+}
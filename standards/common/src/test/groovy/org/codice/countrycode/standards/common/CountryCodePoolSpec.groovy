@@ -0,0 +1,69 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.countrycode.standards.common
+
+import org.codice.countrycode.standard.Standard
+import spock.lang.Specification
+
+class CountryCodePoolSpec extends Specification {
+
+    def standard = Mock(Standard) {
+        getName() >> 'name'
+        getVersion() >> 'version'
+        getFormatNames() >> (['alpha2', 'alpha3'] as Set)
+    }
+
+    def pool = new CountryCodePool(standard)
+
+    def 'test intern returns the canonical country code'() {
+        given:
+        def first = new CountryCodeBuilder(standard, 'Afghanistan').formatValue('alpha2', 'AF').build()
+        def second = new CountryCodeBuilder(standard, 'Afghanistan').formatValue('alpha2', 'AF').build()
+        def other = new CountryCodeBuilder(standard, 'Aruba').formatValue('alpha2', 'AA').build()
+
+        when:
+        def canonical = pool.intern(first)
+
+        then:
+        canonical == first
+        pool.intern(second).is(canonical)
+        pool.intern(other) == other
+        pool.getCountryCodes().size() == 2
+    }
+
+    def 'test pools share canonical country codes'() {
+        given:
+        def otherPool = new CountryCodePool(standard)
+        def first = new CountryCodeBuilder(standard, 'Aland').formatValue('alpha2', 'AX').build()
+        def second = new CountryCodeBuilder(standard, 'Aland').formatValue('alpha2', 'AX').build()
+
+        expect:
+        otherPool.intern(second).is(pool.intern(first))
+    }
+
+    def 'test intern rejects country codes of another standard'() {
+        given:
+        def otherStandard = Mock(Standard) {
+            getName() >> 'other'
+            getVersion() >> 'version'
+            getFormatNames() >> (['alpha2'] as Set)
+        }
+
+        when:
+        pool.intern(new CountryCodeBuilder(otherStandard, 'Aruba').formatValue('alpha2', 'AA').build())
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+}
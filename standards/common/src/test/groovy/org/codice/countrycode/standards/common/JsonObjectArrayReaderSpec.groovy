@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.countrycode.standards.common
+
+import spock.lang.Specification
+
+class JsonObjectArrayReaderSpec extends Specification {
+
+    def 'test read objects'() {
+        when:
+        def objects = readAll('[{"name": "Afghanistan", "numeric": "004"}, {"name": "Albania"}]')
+
+        then:
+        objects == [[name: 'Afghanistan', numeric: '004'], [name: 'Albania']]
+    }
+
+    def 'test read empty array'() {
+        expect:
+        readAll(' [ ] ') == []
+    }
+
+    def 'test scalar values'() {
+        expect:
+        readAll('[{"number": 12, "bool": true, "nothing": null}]') ==
+                [[number: '12', bool: 'true', nothing: null]]
+    }
+
+    def 'test string escapes'() {
+        expect:
+        readAll('[{"name": "\\u00c5land \\"Islands\\"\\n"}]') == [[name: 'Åland "Islands"\n']]
+    }
+
+    def 'test nested values are skipped'() {
+        expect:
+        readAll('[{"nested": {"a": ["]", {}]}, "name": "Aruba"}]') == [[nested: null, name: 'Aruba']]
+    }
+
+    def 'test unread fields are skipped'() {
+        given:
+        def reader = new JsonObjectArrayReader(new StringReader('[{"a": "1", "b": "2"}, {"c": "3"}]'))
+
+        when:
+        reader.nextObject()
+        reader.nextName()
+        reader.nextObject()
+
+        then:
+        reader.nextName() == 'c'
+        reader.nextValue() == '3'
+        reader.nextName() == null
+        !reader.nextObject()
+    }
+
+    def 'test malformed input'() {
+        when:
+        readAll(json)
+
+        then:
+        thrown(IOException)
+
+        where:
+        json << ['{}', '[{"a" "1"}]', '[{"a": "1"', '[{"a": "1"} {"b": "2"}]', '[{"a": "\\q"}]']
+    }
+
+    private static List<Map<String, String>> readAll(String json) {
+        def objects = []
+        def reader = new JsonObjectArrayReader(new StringReader(json))
+        while (reader.nextObject()) {
+            def object = [:]
+            String field
+            while ((field = reader.nextName()) != null) {
+                object[field] = reader.nextValue()
+            }
+            objects << object
+        }
+        return objects
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.countrycode.standards.common
+
+import spock.lang.Specification
+
+import java.nio.ByteBuffer
+import java.nio.charset.StandardCharsets
+
+class NormalizedKeyMapSpec extends Specification {
+
+    def 'test lookup ignores case and surrounding whitespace'() {
+        given:
+        def map = new NormalizedKeyMap<String>(['AF': 'Afghanistan', 'Åland Islands': 'Åland'])
+
+        expect:
+        map.get(value) == expected
+
+        where:
+        value                     | expected
+        'AF'                      | 'Afghanistan'
+        ' af '                    | 'Afghanistan'
+        new StringBuilder('aF')   | 'Afghanistan'
+        'ÅLAND ISLANDS '          | 'Åland'
+        'AX'                      | null
+        'Aland Islands'           | null
+        null                      | null
+    }
+
+    def 'test lookup by packed key'() {
+        given:
+        def map = new NormalizedKeyMap<String>(['USA': 'United States'])
+
+        expect:
+        map.get(NormalizedKey.pack('usa')) == 'United States'
+        map.get(NormalizedKey.pack('US')) == null
+    }
+
+    def 'test lookup of encoded values'() {
+        given:
+        def map = new NormalizedKeyMap<String>(['AF': 'Afghanistan', 'Åland Islands': 'Åland'])
+        def bytes = 'af|åland islands|AX'.getBytes(StandardCharsets.UTF_8)
+
+        expect:
+        map.get(bytes, 0, 2) == 'Afghanistan'
+        map.get(bytes, 3, 14) == 'Åland'
+        map.get(bytes, 18, 2) == null
+        map.get(ByteBuffer.wrap(bytes), 0, 2) == 'Afghanistan'
+        map.get(ByteBuffer.wrap(bytes).asReadOnlyBuffer(), 3, 14) == 'Åland'
+    }
+
+    def 'test first key of a normalized form wins'() {
+        given:
+        def entries = new LinkedHashMap<String, String>()
+        entries.put('af', 'first')
+        entries.put('AF', 'second')
+        entries.put('long value', 'third')
+        entries.put('LONG VALUE', 'fourth')
+
+        when:
+        def map = new NormalizedKeyMap<String>(entries)
+
+        then:
+        map.size() == 2
+        map.get('AF') == 'first'
+        map.get('Long Value') == 'third'
+    }
+
+    def 'test many keys'() {
+        given:
+        def entries = (0..<1000).collectEntries { [(String.format('%03d', it)): it] }
+
+        when:
+        def map = new NormalizedKeyMap<Integer>(entries)
+
+        then:
+        map.size() == 1000
+        (0..<1000).every { map.get(String.format(' %03d', it)) == it }
+        map.get('1000') == null
+    }
+
+    def 'test empty map'() {
+        expect:
+        NormalizedKeyMap.empty().size() == 0
+        NormalizedKeyMap.empty().get('AF') == null
+    }
+}
@@ -0,0 +1,126 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.countrycode.standards.common
+
+import spock.lang.Specification
+
+import java.nio.ByteBuffer
+import java.nio.charset.StandardCharsets
+
+class NormalizedKeySpec extends Specification {
+
+    def 'test values with the same normalized form pack to the same key'() {
+        expect:
+        NormalizedKey.pack(first) == NormalizedKey.pack(second)
+        NormalizedKey.pack(first) != NormalizedKey.UNPACKABLE
+
+        where:
+        first     | second
+        'AF'      | 'af'
+        'AFG'     | ' afg '
+        '004'     | '\t004\n'
+        ''        | '   '
+        'ABCDEFG' | 'abcdefg'
+    }
+
+    def 'test values with different normalized forms pack to different keys'() {
+        expect:
+        NormalizedKey.pack(first) != NormalizedKey.pack(second)
+
+        where:
+        first | second
+        'AF'  | 'AFG'
+        'AF'  | 'FA'
+        'A'   | ' A A'
+        '04'  | '004'
+    }
+
+    def 'test long or non-ascii values are not packed'() {
+        expect:
+        NormalizedKey.pack(value) == NormalizedKey.UNPACKABLE
+
+        where:
+        value << ['ABCDEFGH', 'Åland', ' Åa ']
+    }
+
+    def 'test packing accepts any char sequence'() {
+        expect:
+        NormalizedKey.pack(new StringBuilder(' us ')) == NormalizedKey.pack('US')
+    }
+
+    def 'test encoded values pack to the same key as their text'() {
+        given:
+        def bytes = "x,${value},y".getBytes(StandardCharsets.UTF_8)
+        def length = value.getBytes(StandardCharsets.UTF_8).length
+        def directBuffer = ByteBuffer.allocateDirect(bytes.length).put(bytes)
+
+        expect:
+        NormalizedKey.pack(bytes, 2, length) == NormalizedKey.pack(value)
+        NormalizedKey.pack(ByteBuffer.wrap(bytes), 2, length) == NormalizedKey.pack(value)
+        NormalizedKey.pack(directBuffer, 2, length) == NormalizedKey.pack(value)
+        NormalizedKey.normalize(bytes, 2, length) == NormalizedKey.normalize(value)
+        NormalizedKey.normalize(directBuffer, 2, length) == NormalizedKey.normalize(value)
+
+        where:
+        value << ['us', ' usa ', '840', 'ABCDEFGH', 'Åland']
+    }
+
+    def 'test packing a sliced buffer'() {
+        given:
+        def buffer = ByteBuffer.wrap('xxUSxx'.bytes, 2, 4).slice()
+
+        expect:
+        NormalizedKey.pack(buffer, 0, 2) == NormalizedKey.pack('US')
+    }
+
+    def 'test packing encoded values out of bounds fails'() {
+        when:
+        NormalizedKey.pack('US'.bytes, offset, length)
+
+        then:
+        thrown(IndexOutOfBoundsException)
+
+        where:
+        offset | length
+        -1     | 2
+        0      | 3
+        1      | -1
+    }
+
+    def 'test normalize'() {
+        expect:
+        NormalizedKey.normalize(value) == normalized
+
+        where:
+        value          | normalized
+        'us'           | 'US'
+        ' Åland\t'     | 'ÅLAND'
+        'United State' | 'UNITED STATE'
+    }
+
+    def 'test equal'() {
+        expect:
+        NormalizedKey.equal(first, second) == equal
+
+        where:
+        first        | second       | equal
+        'us'         | ' US '       | true
+        'us'         | 'USA'        | false
+        'åland isl.' | 'ÅLAND ISL.' | true
+        'ABCDEFGH'   | 'ABCDEFG'    | false
+        null         | null         | true
+        null         | 'US'         | false
+        'US'         | null         | false
+    }
+}
@@ -0,0 +1,126 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.countrycode.standards.common
+
+import org.codice.countrycode.standard.Standard
+import org.codice.countrycode.standard.StandardProvider
+import org.codice.countrycode.standards.common.StandardsSnapshot.MappedColumn
+import spock.lang.Specification
+
+class StandardsSnapshotSpec extends Specification {
+
+    def standard = Mock(Standard) {
+        getName() >> 'name'
+        getVersion() >> 'version'
+        getFormatNames() >> (['alpha2', 'other'] as Set)
+    }
+
+    def 'test snapshot round trip'() {
+        given:
+        def aruba = new CountryCodeBuilder(standard, 'Aruba').formatValue('alpha2', 'AA').build()
+        def other = new CountryCodeBuilder(standard, 'Other').formatValue('other', 'value').build()
+        def provider = Mock(StandardProvider) {
+            getStandard() >> standard
+            getStandardEntries() >> ([aruba, other] as Set)
+        }
+        def output = new ByteArrayOutputStream()
+
+        when:
+        StandardsSnapshot.write(output, [new MappedColumn(provider, 'alpha2')], [[aruba, other] as Set])
+        def snapshot = StandardsSnapshot.read(new ByteArrayInputStream(output.toByteArray()))
+
+        then:
+        def snapshotProvider = snapshot.getStandardProviders()[0]
+        snapshotProvider.getStandard().getName() == 'name'
+        snapshotProvider.getStandard().getVersion() == 'version'
+        snapshotProvider.getStandardEntries() == [aruba, other] as Set
+        snapshotProvider.getStandardEntry('other', 'value') == other
+        snapshot.getMappedColumns()[0].getStandardProvider().is(snapshotProvider)
+        snapshot.getMappedColumns()[0].getFormatName() == 'alpha2'
+        snapshot.getMappings() == [[aruba, other] as Set]
+    }
+
+    def 'test snapshot codes are shared with pooled codes'() {
+        given:
+        def pooled = new CountryCodePool(standard)
+                .intern(new CountryCodeBuilder(standard, 'Aruba').formatValue('alpha2', 'AA').build())
+        def aruba = new CountryCodeBuilder(standard, 'Aruba').formatValue('alpha2', 'AA').build()
+        def provider = Mock(StandardProvider) {
+            getStandard() >> standard
+            getStandardEntries() >> ([aruba] as Set)
+        }
+        def output = new ByteArrayOutputStream()
+        StandardsSnapshot.write(output, [new MappedColumn(provider, 'alpha2')], [[aruba] as Set])
+
+        when:
+        def snapshot = StandardsSnapshot.read(new ByteArrayInputStream(output.toByteArray()))
+
+        then:
+        snapshot.getStandardProviders()[0].getStandardEntry('alpha2', 'AA').is(pooled)
+        snapshot.getMappings()[0].iterator().next().is(pooled)
+    }
+
+    def 'test snapshot standards resolve to known standards'() {
+        given:
+        def aruba = new CountryCodeBuilder(standard, 'Aruba').formatValue('alpha2', 'AA').build()
+        def provider = Mock(StandardProvider) {
+            getStandard() >> standard
+            getStandardEntries() >> ([aruba] as Set)
+        }
+        def output = new ByteArrayOutputStream()
+        StandardsSnapshot.write(output, [new MappedColumn(provider, 'alpha2')], [[aruba] as Set])
+        def knownStandard = Mock(Standard) {
+            getName() >> 'NAME'
+            getVersion() >> 'Version'
+            getFormatNames() >> (['alpha2', 'other'] as Set)
+        }
+        def otherStandard = Mock(Standard) {
+            getName() >> 'other'
+            getVersion() >> 'version'
+        }
+
+        when:
+        def snapshot = StandardsSnapshot.read(
+                new ByteArrayInputStream(output.toByteArray()), [otherStandard, knownStandard])
+
+        then:
+        snapshot.getStandardProviders()[0].getStandard().is(knownStandard)
+        snapshot.getMappings()[0].iterator().next().getStandard().is(knownStandard)
+        !StandardsSnapshot.read(new ByteArrayInputStream(output.toByteArray())).getStandardProviders()[0]
+                .getStandard().is(knownStandard)
+    }
+
+    def 'test mapped code missing from providers is rejected'() {
+        given:
+        def provider = Mock(StandardProvider) {
+            getStandard() >> standard
+            getStandardEntries() >> ([] as Set)
+        }
+        def aruba = new CountryCodeBuilder(standard, 'Aruba').formatValue('alpha2', 'AA').build()
+
+        when:
+        StandardsSnapshot.write(new ByteArrayOutputStream(), [new MappedColumn(provider, 'alpha2')], [[aruba] as Set])
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    def 'test reading data that is not a snapshot fails'() {
+        when:
+        StandardsSnapshot.read(new ByteArrayInputStream([1, 2, 3, 4, 0, 0, 0, 1] as byte[]))
+
+        then:
+        thrown(IOException)
+    }
+}
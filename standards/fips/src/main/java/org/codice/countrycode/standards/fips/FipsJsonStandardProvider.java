@@ -15,16 +15,17 @@ package org.codice.countrycode.standards.fips;
 
 import static org.codice.countrycode.standards.fips.FipsStandard.ALPHA_2;
 
-import java.util.HashSet;
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Set;
-import org.apache.commons.collections4.CollectionUtils;
-import org.boon.Boon;
-import org.boon.IO;
+import org.apache.commons.lang3.StringUtils;
 import org.codice.countrycode.standard.CountryCode;
 import org.codice.countrycode.standard.Standard;
 import org.codice.countrycode.standard.StandardProvider;
 import org.codice.countrycode.standards.common.CountryCodeBuilder;
+import org.codice.countrycode.standards.common.CountryCodeIndex;
+import org.codice.countrycode.standards.common.CountryCodePool;
+import org.codice.countrycode.standards.common.JsonObjectArrayReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -35,14 +36,19 @@ public class FipsJsonStandardProvider implements StandardProvider {
 
   private static final String FIPS_CODES_FILE = "fips_codes.json";
 
+  private static final String ALPHA_2_CODE_FIELD = "alpha2Code";
+
+  private static final String SHORT_NAME_FIELD = "shortName";
+
   private final Standard standard;
 
-  private Set<CountryCode> standardEntries;
+  private final CountryCodeIndex standardEntries;
 
   public FipsJsonStandardProvider() {
-    standardEntries = new HashSet<>();
     standard = new FipsStandard();
-    init();
+    CountryCodePool countryCodePool = new CountryCodePool(standard);
+    init(countryCodePool);
+    standardEntries = new CountryCodeIndex(standard, countryCodePool.getCountryCodes());
   }
 
   @Override
@@ -52,45 +58,63 @@ public class FipsJsonStandardProvider implements StandardProvider {
 
   @Override
   public Set<CountryCode> getStandardEntries() {
-    return standardEntries;
+    return standardEntries.getCountryCodes();
   }
 
-  private void init() {
-    List<FipsCode> fipsCodes =
-        Boon.fromJsonArray(
-            IO.read(this.getClass().getClassLoader().getResourceAsStream(FIPS_CODES_FILE), "UTF-8"),
-            FipsCode.class);
+  @Override
+  public CountryCode getStandardEntry(String formatName, String value) {
+    return standardEntries.get(formatName, value);
+  }
 
-    if (CollectionUtils.isEmpty(fipsCodes)) {
-      LOGGER.debug("FIPS file [{}] contained no codes. Provider will be empty.", FIPS_CODES_FILE);
-      return;
+  private void init(CountryCodePool countryCodePool) {
+    try (InputStream inputStream =
+        getClass().getClassLoader().getResourceAsStream(FIPS_CODES_FILE)) {
+      if (inputStream == null) {
+        LOGGER.debug("Failed to read FIPS file [{}]. Provider will be empty.", FIPS_CODES_FILE);
+        return;
+      }
+
+      try (JsonObjectArrayReader reader = new JsonObjectArrayReader(inputStream)) {
+        while (reader.nextObject()) {
+          CountryCode countryCode = readFipsCode(reader);
+          if (countryCode != null) {
+            countryCodePool.intern(countryCode);
+          }
+        }
+      }
+    } catch (IOException e) {
+      LOGGER.debug(
+          "Error parsing FIPS file [{}]. No further codes will be provided.", FIPS_CODES_FILE, e);
     }
 
-    for (FipsCode fipsCode : fipsCodes) {
-      CountryCode countryCode =
-          new CountryCodeBuilder(standard, fipsCode.getShortName())
-              .formatValue(ALPHA_2, fipsCode.getAlpha2Code())
-              .build();
-      standardEntries.add(countryCode);
+    if (countryCodePool.getCountryCodes().isEmpty()) {
+      LOGGER.debug("FIPS file [{}] contained no codes. Provider will be empty.", FIPS_CODES_FILE);
     }
   }
 
-  private class FipsCode {
-    private String alpha2Code;
-
-    private String shortName;
-
-    public FipsCode(String alpha2Code, String shortName) {
-      this.alpha2Code = alpha2Code;
-      this.shortName = shortName;
+  private CountryCode readFipsCode(JsonObjectArrayReader reader) throws IOException {
+    String alpha2Code = null;
+    String shortName = null;
+
+    String field;
+    while ((field = reader.nextName()) != null) {
+      switch (field) {
+        case ALPHA_2_CODE_FIELD:
+          alpha2Code = reader.nextValue();
+          break;
+        case SHORT_NAME_FIELD:
+          shortName = reader.nextValue();
+          break;
+        default:
+          reader.skipValue();
+      }
     }
 
-    String getAlpha2Code() {
-      return alpha2Code;
+    if (StringUtils.isEmpty(shortName)) {
+      LOGGER.debug("Skipping FIPS code without a short name in [{}].", FIPS_CODES_FILE);
+      return null;
     }
 
-    String getShortName() {
-      return shortName;
-    }
+    return new CountryCodeBuilder(standard, shortName).formatValue(ALPHA_2, alpha2Code).build();
   }
 }
@@ -0,0 +1,184 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.countrycode.standards.genc.provider;
+
+import static org.codice.countrycode.standards.genc.provider.GencStandard.ALPHA_2;
+import static org.codice.countrycode.standards.genc.provider.GencStandard.ALPHA_3;
+import static org.codice.countrycode.standards.genc.provider.GencStandard.NUMERIC;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Set;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.apache.commons.lang3.StringUtils;
+import org.codice.countrycode.standard.CountryCode;
+import org.codice.countrycode.standard.Standard;
+import org.codice.countrycode.standard.StandardProvider;
+import org.codice.countrycode.standards.common.CountryCodeBuilder;
+import org.codice.countrycode.standards.common.CountryCodeIndex;
+import org.codice.countrycode.standards.common.CountryCodePool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads the same local copy of the GENC 3.0.0 standard as {@link GencXmlStandardProvider}, but
+ * with a StAX pull parser over the resource stream. Only the name and the three encodings of each
+ * geopolitical entity are read; divisions, local short names, code URI sets and every other
+ * element are skipped, and each {@link CountryCode} is built as soon as its entry has been read.
+ */
+public class GencStaxStandardProvider implements StandardProvider {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(GencStaxStandardProvider.class);
+
+  private static final String GENC_CODES_FILE = "GENC Standard Ed3.0.xml";
+
+  private static final String CHARSET_NAME = "UTF-8";
+
+  private static final String ENTRY_ELEMENT = "GeopoliticalEntityEntry";
+
+  private static final String ENCODING_ELEMENT = "encoding";
+
+  private static final String NAME_ELEMENT = "name";
+
+  private static final String CHAR_2_CODE_ELEMENT = "char2Code";
+
+  private static final String CHAR_3_CODE_ELEMENT = "char3Code";
+
+  private static final String NUMERIC_CODE_ELEMENT = "numericCode";
+
+  private final Standard standard;
+
+  private final CountryCodeIndex standardEntries;
+
+  public GencStaxStandardProvider() {
+    standard = new GencStandard();
+    CountryCodePool countryCodePool = new CountryCodePool(standard);
+    init(countryCodePool);
+    standardEntries = new CountryCodeIndex(standard, countryCodePool.getCountryCodes());
+  }
+
+  @Override
+  public Standard getStandard() {
+    return standard;
+  }
+
+  @Override
+  public Set<CountryCode> getStandardEntries() {
+    return standardEntries.getCountryCodes();
+  }
+
+  @Override
+  public CountryCode getStandardEntry(String formatName, String value) {
+    return standardEntries.get(formatName, value);
+  }
+
+  private void init(CountryCodePool countryCodePool) {
+    XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
+    xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+
+    try (InputStream inputStream =
+        getClass().getClassLoader().getResourceAsStream(GENC_CODES_FILE)) {
+      if (inputStream == null) {
+        LOGGER.debug("Failed to read file [{}]. No country codes will be provided.", GENC_CODES_FILE);
+        return;
+      }
+
+      XMLStreamReader reader = xmlInputFactory.createXMLStreamReader(inputStream, CHARSET_NAME);
+      try {
+        while (reader.hasNext()) {
+          if (reader.next() == XMLStreamConstants.START_ELEMENT
+              && ENTRY_ELEMENT.equals(reader.getLocalName())) {
+            CountryCode countryCode = readEntry(reader);
+            if (countryCode != null) {
+              countryCodePool.intern(countryCode);
+            }
+          }
+        }
+      } finally {
+        reader.close();
+      }
+    } catch (IOException | XMLStreamException e) {
+      LOGGER.debug(
+          "Error parsing XML file [{}]. No further country codes will be provided.",
+          GENC_CODES_FILE,
+          e);
+    }
+  }
+
+  /**
+   * Reads a geopolitical entity entry. The reader must be on the entry's start element and is left
+   * on its end element.
+   *
+   * @return the country code, or null if the entry has no name
+   */
+  private CountryCode readEntry(XMLStreamReader reader) throws XMLStreamException {
+    String name = null;
+    String alpha2 = null;
+    String alpha3 = null;
+    String numeric = null;
+
+    while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+      String element = reader.getLocalName();
+      if (NAME_ELEMENT.equals(element)) {
+        name = reader.getElementText();
+      } else if (ENCODING_ELEMENT.equals(element)) {
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+          switch (reader.getLocalName()) {
+            case CHAR_2_CODE_ELEMENT:
+              alpha2 = reader.getElementText();
+              break;
+            case CHAR_3_CODE_ELEMENT:
+              alpha3 = reader.getElementText();
+              break;
+            case NUMERIC_CODE_ELEMENT:
+              numeric = reader.getElementText();
+              break;
+            default:
+              skipElement(reader);
+          }
+        }
+      } else {
+        skipElement(reader);
+      }
+    }
+
+    if (StringUtils.isEmpty(name)) {
+      LOGGER.debug("Skipping GENC entry without a name in [{}].", GENC_CODES_FILE);
+      return null;
+    }
+
+    return new CountryCodeBuilder(standard, name)
+        .formatValue(ALPHA_2, alpha2)
+        .formatValue(ALPHA_3, alpha3)
+        .formatValue(NUMERIC, numeric)
+        .build();
+  }
+
+  /** Skips the element the reader is on, leaving the reader on its end element. */
+  private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+    int depth = 1;
+    while (depth > 0) {
+      int event = reader.next();
+      if (event == XMLStreamConstants.START_ELEMENT) {
+        depth++;
+      } else if (event == XMLStreamConstants.END_ELEMENT) {
+        depth--;
+      }
+    }
+  }
+}
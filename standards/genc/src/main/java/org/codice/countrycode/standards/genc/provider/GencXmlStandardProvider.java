@@ -17,10 +17,8 @@ import static org.codice.countrycode.standards.genc.provider.GencStandard.ALPHA_
 import static org.codice.countrycode.standards.genc.provider.GencStandard.ALPHA_3;
 import static org.codice.countrycode.standards.genc.provider.GencStandard.NUMERIC;
 
-import com.google.common.collect.ImmutableSet;
 import java.io.IOException;
 import java.io.StringReader;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import javax.xml.bind.JAXBContext;
@@ -31,6 +29,8 @@ import org.codice.countrycode.standard.CountryCode;
 import org.codice.countrycode.standard.Standard;
 import org.codice.countrycode.standard.StandardProvider;
 import org.codice.countrycode.standards.common.CountryCodeBuilder;
+import org.codice.countrycode.standards.common.CountryCodeIndex;
+import org.codice.countrycode.standards.common.CountryCodePool;
 import org.codice.countrycode.standards.genc.GENCStandardBaseline;
 import org.codice.countrycode.standards.genc.GeopoliticalEntityEntry;
 import org.slf4j.Logger;
@@ -50,12 +50,13 @@ public class GencXmlStandardProvider implements StandardProvider {
 
   private final Standard standard;
 
-  private final Set<CountryCode> standardEntries;
+  private final CountryCodeIndex standardEntries;
 
   public GencXmlStandardProvider() {
-    standardEntries = new HashSet<>();
     standard = new GencStandard();
-    init();
+    CountryCodePool countryCodePool = new CountryCodePool(standard);
+    init(countryCodePool);
+    standardEntries = new CountryCodeIndex(standard, countryCodePool.getCountryCodes());
   }
 
   @Override
@@ -65,10 +66,15 @@ public class GencXmlStandardProvider implements StandardProvider {
 
   @Override
   public Set<CountryCode> getStandardEntries() {
-    return ImmutableSet.copyOf(standardEntries);
+    return standardEntries.getCountryCodes();
   }
 
-  private void init() {
+  @Override
+  public CountryCode getStandardEntry(String formatName, String value) {
+    return standardEntries.get(formatName, value);
+  }
+
+  private void init(CountryCodePool countryCodePool) {
     String xml;
     try {
       xml =
@@ -95,7 +101,7 @@ public class GencXmlStandardProvider implements StandardProvider {
                 .formatValue(ALPHA_3, entry.getEncoding().getChar3Code())
                 .formatValue(NUMERIC, entry.getEncoding().getNumericCode())
                 .build();
-        standardEntries.add(countryCode);
+        countryCodePool.intern(countryCode);
       }
     } catch (JAXBException e) {
       LOGGER.debug(
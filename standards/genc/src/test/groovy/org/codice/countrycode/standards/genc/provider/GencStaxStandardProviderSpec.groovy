@@ -0,0 +1,39 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.countrycode.standards.genc.provider
+
+import spock.lang.Specification
+
+class GencStaxStandardProviderSpec extends Specification {
+
+    def 'test genc stax provider'() {
+        expect:
+        new GencStaxStandardProvider().getStandardEntries().size() == 280
+    }
+
+    def 'test genc stax provider matches jaxb provider'() {
+        expect:
+        new GencStaxStandardProvider().getStandardEntries() == new GencXmlStandardProvider().getStandardEntries()
+    }
+
+    def 'test lookup by format value'() {
+        when:
+        def countryCode = new GencStaxStandardProvider().getStandardEntry(GencStandard.ALPHA_3, 'USA')
+
+        then:
+        countryCode.name == 'UNITED STATES'
+        countryCode.getAsFormat(GencStandard.ALPHA_2) == 'US'
+        countryCode.getAsFormat(GencStandard.NUMERIC) == '840'
+    }
+}
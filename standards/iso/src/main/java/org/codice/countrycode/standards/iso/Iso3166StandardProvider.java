@@ -17,17 +17,17 @@ import static org.codice.countrycode.standards.iso.Iso3166Standard.ALPHA_2;
 import static org.codice.countrycode.standards.iso.Iso3166Standard.ALPHA_3;
 import static org.codice.countrycode.standards.iso.Iso3166Standard.NUMERIC;
 
-import com.google.common.collect.ImmutableSet;
-import java.util.HashSet;
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Set;
-import org.apache.commons.collections4.CollectionUtils;
-import org.boon.Boon;
-import org.boon.IO;
+import org.apache.commons.lang3.StringUtils;
 import org.codice.countrycode.standard.CountryCode;
 import org.codice.countrycode.standard.Standard;
 import org.codice.countrycode.standard.StandardProvider;
 import org.codice.countrycode.standards.common.CountryCodeBuilder;
+import org.codice.countrycode.standards.common.CountryCodeIndex;
+import org.codice.countrycode.standards.common.CountryCodePool;
+import org.codice.countrycode.standards.common.JsonObjectArrayReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -37,14 +37,17 @@ public class Iso3166StandardProvider implements StandardProvider {
 
   private static final String ISO3166_1_JSON = "iso3166-1.json";
 
+  private static final String NAME_FIELD = "name";
+
   private final Standard standard;
 
-  private final Set<CountryCode> countryCodes;
+  private final CountryCodeIndex countryCodes;
 
   public Iso3166StandardProvider() {
     standard = new Iso3166Standard();
-    countryCodes = new HashSet<>();
-    init();
+    CountryCodePool countryCodePool = new CountryCodePool(standard);
+    init(countryCodePool);
+    countryCodes = new CountryCodeIndex(standard, countryCodePool.getCountryCodes());
   }
 
   @Override
@@ -54,60 +57,79 @@ public class Iso3166StandardProvider implements StandardProvider {
 
   @Override
   public Set<CountryCode> getStandardEntries() {
-    return ImmutableSet.copyOf(countryCodes);
+    return countryCodes.getCountryCodes();
   }
 
-  private void init() {
-    List<Iso3166Code> isoCodes =
-        Boon.fromJsonArray(
-            IO.read(this.getClass().getClassLoader().getResourceAsStream(ISO3166_1_JSON), "UTF-8"),
-            Iso3166Code.class);
+  @Override
+  public CountryCode getStandardEntry(String formatName, String value) {
+    return countryCodes.get(formatName, value);
+  }
 
-    if (CollectionUtils.isEmpty(isoCodes)) {
+  private void init(CountryCodePool countryCodePool) {
+    try (InputStream inputStream =
+        getClass().getClassLoader().getResourceAsStream(ISO3166_1_JSON)) {
+      if (inputStream == null) {
+        LOGGER.debug(
+            "Failed to read ISO 3166-1 file [{}]. Provider will be empty.", ISO3166_1_JSON);
+        return;
+      }
+
+      try (JsonObjectArrayReader reader = new JsonObjectArrayReader(inputStream)) {
+        while (reader.nextObject()) {
+          CountryCode countryCode = readIsoCode(reader);
+          if (countryCode != null) {
+            countryCodePool.intern(countryCode);
+          }
+        }
+      }
+    } catch (IOException e) {
       LOGGER.debug(
-          "ISO 3166-1 file [{}] contained no codes. Provider will be empty.", ISO3166_1_JSON);
-      return;
+          "Error parsing ISO 3166-1 file [{}]. No further codes will be provided.",
+          ISO3166_1_JSON,
+          e);
     }
 
-    for (Iso3166Code isoCode : isoCodes) {
-      CountryCode countryCode =
-          new CountryCodeBuilder(standard, isoCode.getName())
-              .formatValue(ALPHA_2, isoCode.getAlpha2())
-              .formatValue(ALPHA_3, isoCode.getAlpha3())
-              .formatValue(NUMERIC, isoCode.getNumeric())
-              .build();
-      countryCodes.add(countryCode);
+    if (countryCodePool.getCountryCodes().isEmpty()) {
+      LOGGER.debug(
+          "ISO 3166-1 file [{}] contained no codes. Provider will be empty.", ISO3166_1_JSON);
     }
   }
 
-  private final class Iso3166Code {
-    private final String alpha2;
-    private final String alpha3;
-    private final String numeric;
-
-    private final String name;
-
-    Iso3166Code(String alpha2, String alpha3, String numeric, String name) {
-      this.alpha2 = alpha2;
-      this.alpha3 = alpha3;
-      this.numeric = numeric;
-      this.name = name;
-    }
-
-    public String getAlpha2() {
-      return alpha2;
+  private CountryCode readIsoCode(JsonObjectArrayReader reader) throws IOException {
+    String name = null;
+    String alpha2 = null;
+    String alpha3 = null;
+    String numeric = null;
+
+    String field;
+    while ((field = reader.nextName()) != null) {
+      switch (field) {
+        case NAME_FIELD:
+          name = reader.nextValue();
+          break;
+        case ALPHA_2:
+          alpha2 = reader.nextValue();
+          break;
+        case ALPHA_3:
+          alpha3 = reader.nextValue();
+          break;
+        case NUMERIC:
+          numeric = reader.nextValue();
+          break;
+        default:
+          reader.skipValue();
+      }
     }
 
-    public String getAlpha3() {
-      return alpha3;
+    if (StringUtils.isEmpty(name)) {
+      LOGGER.debug("Skipping ISO 3166-1 code without a name in [{}].", ISO3166_1_JSON);
+      return null;
     }
 
-    public String getNumeric() {
-      return numeric;
-    }
-
-    public String getName() {
-      return name;
-    }
+    return new CountryCodeBuilder(standard, name)
+        .formatValue(ALPHA_2, alpha2)
+        .formatValue(ALPHA_3, alpha3)
+        .formatValue(NUMERIC, numeric)
+        .build();
   }
 }
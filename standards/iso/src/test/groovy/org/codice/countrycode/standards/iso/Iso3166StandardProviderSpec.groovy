@@ -21,4 +21,30 @@ class Iso3166StandardProviderSpec extends Specification {
         expect:
         new Iso3166StandardProvider().getStandardEntries().size() == 249
     }
+
+    def 'test standard entries are built once'() {
+        given:
+        def provider = new Iso3166StandardProvider()
+
+        expect:
+        provider.getStandardEntries().is(provider.getStandardEntries())
+    }
+
+    def 'test standard entry lookup by format value'() {
+        given:
+        def provider = new Iso3166StandardProvider()
+
+        expect:
+        provider.getStandardEntry(format, value)?.getName() == name
+
+        where:
+        format    | value | name
+        'alpha2'  | 'AF'  | 'Afghanistan'
+        'alpha3'  | 'AFG' | 'Afghanistan'
+        'numeric' | '004' | 'Afghanistan'
+        'alpha2'  | 'af'  | 'Afghanistan'
+        'alpha2'  | ' AF '| 'Afghanistan'
+        'alpha2'  | 'ZZ'  | null
+        'other'   | 'AF'  | null
+    }
 }
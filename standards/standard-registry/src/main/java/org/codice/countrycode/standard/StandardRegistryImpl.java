@@ -13,34 +13,169 @@
  */
 package org.codice.countrycode.standard;
 
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Optional;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+import org.codice.countrycode.metrics.Metrics;
 import org.codice.countrycode.standards.fips.FipsJsonStandardProvider;
-import org.codice.countrycode.standards.genc.provider.GencXmlStandardProvider;
+import org.codice.countrycode.standards.fips.FipsStandard;
+import org.codice.countrycode.standards.genc.provider.GencStandard;
+import org.codice.countrycode.standards.genc.provider.GencStaxStandardProvider;
+import org.codice.countrycode.standards.iso.Iso3166Standard;
 import org.codice.countrycode.standards.iso.Iso3166StandardProvider;
 
+/**
+ * Registry of the built-in {@link StandardProvider}s. Providers are registered with the standard
+ * they provide and are only loaded the first time a lookup asks for them, so standards that are
+ * never used never have their data files parsed. Providers may be registered and unregistered at
+ * runtime without blocking lookups.
+ *
+ * <p>Alternatively, {@link #initialize(Executor)} loads every registered provider concurrently. The
+ * returned future completes once all of them are loaded; until then, a lookup only waits for the
+ * provider it asks for, so each standard is available as soon as its own provider is loaded.
+ */
 public class StandardRegistryImpl implements StandardRegistry {
 
-  private static StandardRegistry standardRegistry;
+  /** Registered providers keyed by the upper-cased name and version of their standard. */
+  private final ConcurrentMap<String, ProviderEntry> standardProviders =
+      new ConcurrentHashMap<>();
+
+  /** Registered providers keyed by the upper-cased name of their standard. */
+  private volatile Map<String, List<ProviderEntry>> providersByName = Collections.emptyMap();
 
-  private final Set<StandardProvider> standardProviders;
+  private volatile Set<Standard> registeredStandards = Collections.emptySet();
 
   public static StandardRegistry getInstance() {
-    if (standardRegistry == null) {
-      standardRegistry = new StandardRegistryImpl();
+    return InstanceHolder.INSTANCE;
+  }
+
+  /**
+   * Returns the same shared registry as {@link #getInstance()}, typed so that providers can be
+   * registered with it and loaded up front.
+   *
+   * @return the shared registry
+   */
+  public static StandardRegistryImpl getSharedInstance() {
+    return InstanceHolder.INSTANCE;
+  }
+
+  StandardRegistryImpl() {
+    register(new FipsStandard(), FipsJsonStandardProvider::new);
+    register(new GencStandard(), GencStaxStandardProvider::new);
+    register(new Iso3166Standard(), Iso3166StandardProvider::new);
+  }
+
+  /**
+   * Registers a provider, replacing any provider of a standard with the same name and version.
+   *
+   * @param standardProvider the provider to register, cannot be null
+   */
+  public void register(StandardProvider standardProvider) {
+    Validate.notNull(standardProvider, "Standard provider may not be null");
+    Standard standard = standardProvider.getStandard();
+    put(new ProviderEntry(standard, standardProvider));
+  }
+
+  /**
+   * Registers a provider that is created the first time a lookup asks for it, replacing any
+   * provider of a standard with the same name and version.
+   *
+   * @param standard the standard of the provider, cannot be null
+   * @param providerSupplier creates the provider, cannot be null
+   */
+  public void register(Standard standard, Supplier<StandardProvider> providerSupplier) {
+    Validate.notNull(standard, "Standard may not be null");
+    Validate.notNull(providerSupplier, "Standard provider supplier may not be null");
+    put(new ProviderEntry(standard, providerSupplier));
+  }
+
+  /**
+   * Removes the provider of the standard with the given name and version.
+   *
+   * @return true if a provider was removed
+   */
+  public boolean unregister(String name, String version) {
+    if (StringUtils.isEmpty(name) || StringUtils.isEmpty(version)) {
+      return false;
+    }
+
+    synchronized (standardProviders) {
+      if (standardProviders.remove(key(name, version)) == null) {
+        return false;
+      }
+      updateViews();
+      return true;
+    }
+  }
+
+  /**
+   * Loads every registered provider concurrently on virtual threads when the runtime supports them,
+   * or on the common fork-join pool otherwise.
+   *
+   * @see #initialize(Executor)
+   */
+  public CompletableFuture<Map<Standard, Duration>> initialize() {
+    ExecutorService virtualThreadExecutor = newVirtualThreadExecutor();
+    if (virtualThreadExecutor == null) {
+      return initialize(ForkJoinPool.commonPool());
+    }
+
+    CompletableFuture<Map<Standard, Duration>> loadTimes = initialize(virtualThreadExecutor);
+    virtualThreadExecutor.shutdown();
+    return loadTimes;
+  }
+
+  /**
+   * Loads every registered provider that is not loaded yet, each as its own task on the given
+   * executor. Providers registered after this call are still loaded on their first lookup.
+   *
+   * @param executor runs the provider loads, cannot be null
+   * @return completes with the time each provider took to load once all of them are loaded, or
+   *     exceptionally if any of them failed to load
+   */
+  public CompletableFuture<Map<Standard, Duration>> initialize(Executor executor) {
+    Validate.notNull(executor, "Executor may not be null");
+
+    List<CompletableFuture<Void>> loads = new ArrayList<>();
+    for (ProviderEntry entry : standardProviders.values()) {
+      loads.add(CompletableFuture.runAsync(entry::getProvider, executor));
     }
-    return standardRegistry;
+
+    return CompletableFuture.allOf(loads.toArray(new CompletableFuture<?>[0]))
+        .thenApply(ignored -> getLoadTimes());
   }
 
-  private StandardRegistryImpl() {
-    standardProviders = new HashSet<>();
-    standardProviders.add(new FipsJsonStandardProvider());
-    standardProviders.add(new GencXmlStandardProvider());
-    standardProviders.add(new Iso3166StandardProvider());
+  /**
+   * Returns the time each loaded provider took to load. Providers registered as instances, and
+   * providers that have not been loaded yet, are not included.
+   */
+  public Map<Standard, Duration> getLoadTimes() {
+    Map<Standard, Duration> loadTimes = new HashMap<>();
+    for (ProviderEntry entry : standardProviders.values()) {
+      Duration loadTime = entry.getLoadTime();
+      if (loadTime != null) {
+        loadTimes.put(entry.getStandard(), loadTime);
+      }
+    }
+    return Collections.unmodifiableMap(loadTimes);
   }
 
   @Override
@@ -49,10 +184,12 @@ public class StandardRegistryImpl implements StandardRegistry {
       return Collections.emptySet();
     }
 
-    return standardProviders
-        .stream()
-        .filter(provider -> provider.getStandard().getName().equalsIgnoreCase(name))
-        .collect(Collectors.toSet());
+    List<ProviderEntry> entries = providersByName.get(name.toUpperCase(Locale.ROOT));
+    if (entries == null) {
+      return Collections.emptySet();
+    }
+
+    return entries.stream().map(ProviderEntry::getProvider).collect(Collectors.toSet());
   }
 
   @Override
@@ -61,23 +198,110 @@ public class StandardRegistryImpl implements StandardRegistry {
       return null;
     }
 
-    Optional<StandardProvider> standardProvider =
-        standardProviders
-            .stream()
-            .filter(
-                provider ->
-                    provider.getStandard().getName().equalsIgnoreCase(name)
-                        && provider.getStandard().getVersion().equalsIgnoreCase(version))
-            .findFirst();
-
-    return standardProvider.orElse(null);
+    ProviderEntry entry = standardProviders.get(key(name, version));
+    return entry == null ? null : entry.getProvider();
   }
 
   @Override
   public Set<Standard> getRegisteredStandards() {
-    return standardProviders
-        .stream()
-        .map(StandardProvider::getStandard)
-        .collect(Collectors.toSet());
+    return registeredStandards;
+  }
+
+  private void put(ProviderEntry entry) {
+    Standard standard = entry.getStandard();
+    synchronized (standardProviders) {
+      standardProviders.put(key(standard.getName(), standard.getVersion()), entry);
+      updateViews();
+    }
+  }
+
+  /**
+   * Rebuilds the name index and standards view after a change. Writers hold the lock on {@code
+   * standardProviders}; readers see the new views as soon as they are published.
+   */
+  private void updateViews() {
+    Map<String, List<ProviderEntry>> byName = new HashMap<>();
+    Set<Standard> standards = new HashSet<>();
+    for (ProviderEntry entry : standardProviders.values()) {
+      byName
+          .computeIfAbsent(
+              entry.getStandard().getName().toUpperCase(Locale.ROOT), key -> new ArrayList<>())
+          .add(entry);
+      standards.add(entry.getStandard());
+    }
+
+    byName.replaceAll((name, entries) -> Collections.unmodifiableList(entries));
+    providersByName = Collections.unmodifiableMap(byName);
+    registeredStandards = Collections.unmodifiableSet(standards);
+  }
+
+  /** Returns a virtual-thread-per-task executor on runtimes that have one, otherwise null. */
+  private static ExecutorService newVirtualThreadExecutor() {
+    try {
+      Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return (ExecutorService) factory.invoke(null);
+    } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+      return null;
+    }
+  }
+
+  private static String key(String name, String version) {
+    return name.toUpperCase(Locale.ROOT) + ':' + version.toUpperCase(Locale.ROOT);
+  }
+
+  /** Lazily creates the shared registry the first time it is requested, without locking. */
+  private static final class InstanceHolder {
+
+    private static final StandardRegistryImpl INSTANCE = new StandardRegistryImpl();
+  }
+
+  /** A registered standard whose provider is created once, the first time it is needed. */
+  private static final class ProviderEntry {
+
+    private final Standard standard;
+
+    private final Supplier<StandardProvider> providerSupplier;
+
+    private volatile StandardProvider provider;
+
+    private volatile Duration loadTime;
+
+    ProviderEntry(Standard standard, Supplier<StandardProvider> providerSupplier) {
+      this.standard = standard;
+      this.providerSupplier = providerSupplier;
+    }
+
+    ProviderEntry(Standard standard, StandardProvider provider) {
+      this.standard = standard;
+      this.providerSupplier = () -> provider;
+      this.provider = provider;
+    }
+
+    Standard getStandard() {
+      return standard;
+    }
+
+    /** Returns how long the provider took to create, or null if it wasn't created by this entry. */
+    Duration getLoadTime() {
+      return loadTime;
+    }
+
+    StandardProvider getProvider() {
+      StandardProvider result = provider;
+      if (result == null) {
+        synchronized (this) {
+          result = provider;
+          if (result == null) {
+            long start = System.nanoTime();
+            result = providerSupplier.get();
+            long duration = System.nanoTime() - start;
+            loadTime = Duration.ofNanos(duration);
+            provider = result;
+            Metrics.getMetrics().recordProviderLoad(standard, duration);
+          }
+        }
+      }
+      return result;
+    }
   }
 }
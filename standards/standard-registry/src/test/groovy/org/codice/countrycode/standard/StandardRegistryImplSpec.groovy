@@ -0,0 +1,199 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.countrycode.standard
+
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import org.codice.countrycode.metrics.CountryCodeMetrics
+import org.codice.countrycode.metrics.Metrics
+import spock.lang.Specification
+
+class StandardRegistryImplSpec extends Specification {
+
+    def registry = new StandardRegistryImpl()
+
+    def 'test registered provider is looked up ignoring case'() {
+        given:
+        def provider = mockStandardProvider('custom', '1.0')
+
+        when:
+        registry.register(provider)
+
+        then:
+        registry.lookup('CUSTOM', '1.0').is(provider)
+        registry.lookup('custom') == [provider] as Set
+        registry.getRegisteredStandards().contains(provider.getStandard())
+    }
+
+    def 'test lazily registered provider is created once on first lookup'() {
+        given:
+        def provider = mockStandardProvider('custom', '1.0')
+        def created = 0
+
+        when:
+        registry.register(provider.getStandard(), { created++; provider })
+
+        then:
+        created == 0
+        registry.getRegisteredStandards().contains(provider.getStandard())
+        created == 0
+
+        when:
+        def first = registry.lookup('custom', '1.0')
+        def second = registry.lookup('custom', '1.0')
+
+        then:
+        first.is(provider)
+        second.is(provider)
+        created == 1
+    }
+
+    def 'test unregistered provider is no longer looked up'() {
+        given:
+        registry.register(mockStandardProvider('custom', '1.0'))
+
+        expect:
+        registry.unregister('Custom', '1.0')
+        registry.lookup('custom', '1.0') == null
+        registry.lookup('custom').isEmpty()
+        !registry.unregister('custom', '1.0')
+    }
+
+    def 'test registered standards view is cached until the registry changes'() {
+        given:
+        def standards = registry.getRegisteredStandards()
+
+        expect:
+        registry.getRegisteredStandards().is(standards)
+        standards*.getName() as Set == ['FIPS', 'GENC', 'ISO3166'] as Set
+
+        when:
+        registry.register(mockStandardProvider('custom', '1.0'))
+
+        then:
+        !registry.getRegisteredStandards().is(standards)
+        registry.getRegisteredStandards().size() == 4
+    }
+
+    def 'test lookup by name returns every version of a standard'() {
+        given:
+        def first = mockStandardProvider('custom', '1.0')
+        def second = mockStandardProvider('Custom', '2.0')
+        registry.register(first)
+        registry.register(second)
+
+        expect:
+        registry.lookup('CUSTOM') == [first, second] as Set
+        registry.lookup('unknown').isEmpty()
+    }
+
+    def 'test initialize loads every registered provider on the executor'() {
+        given:
+        def executor = Executors.newFixedThreadPool(3)
+        def provider = mockStandardProvider('custom', '1.0')
+        def created = 0
+        registry.register(provider.getStandard(), { created++; provider })
+
+        when:
+        def loadTimes = registry.initialize(executor).get(1, TimeUnit.MINUTES)
+
+        then:
+        created == 1
+        loadTimes.keySet() == registry.getRegisteredStandards()
+        loadTimes.values().every { !it.isNegative() }
+        registry.getLoadTimes() == loadTimes
+
+        when:
+        registry.lookup('custom', '1.0')
+
+        then:
+        created == 1
+
+        cleanup:
+        executor.shutdown()
+    }
+
+    def 'test initialize with the default executor'() {
+        when:
+        def loadTimes = registry.initialize().get(1, TimeUnit.MINUTES)
+
+        then:
+        loadTimes.keySet()*.getName() as Set == ['FIPS', 'GENC', 'ISO3166'] as Set
+    }
+
+    def 'test initialize fails when a provider fails to load'() {
+        given:
+        def executor = Executors.newSingleThreadExecutor()
+        def provider = mockStandardProvider('custom', '1.0')
+        registry.register(provider.getStandard(), { throw new IllegalStateException('bad file') })
+
+        when:
+        registry.initialize(executor).get(1, TimeUnit.MINUTES)
+
+        then:
+        thrown(ExecutionException)
+
+        cleanup:
+        executor.shutdown()
+    }
+
+    def 'test load times only include loaded providers'() {
+        given:
+        registry.register(mockStandardProvider('custom', '1.0'))
+
+        expect:
+        registry.getLoadTimes().isEmpty()
+
+        when:
+        registry.lookup('fips', '10-4')
+
+        then:
+        registry.getLoadTimes().keySet()*.getName() == ['FIPS']
+    }
+
+    def 'test provider loads are reported to the installed metrics'() {
+        given:
+        def provider = mockStandardProvider('custom', '1.0')
+        registry.register(provider.getStandard(), { provider })
+        def metrics = Mock(CountryCodeMetrics)
+        Metrics.setMetrics(metrics)
+
+        when:
+        registry.lookup('custom', '1.0')
+        registry.lookup('custom', '1.0')
+
+        then:
+        1 * metrics.recordProviderLoad(provider.getStandard(), { it >= 0 })
+
+        cleanup:
+        Metrics.setMetrics(null)
+    }
+
+    def 'test shared instance is created once'() {
+        expect:
+        StandardRegistryImpl.getInstance().is(StandardRegistryImpl.getInstance())
+        StandardRegistryImpl.getSharedInstance().is(StandardRegistryImpl.getInstance())
+    }
+
+    def mockStandardProvider(String name, String version) {
+        def standard = Mock(Standard) {
+            getName() >> name
+            getVersion() >> version
+        }
+        return Mock(StandardProvider) {
+            getStandard() >> standard
+        }
+    }
+}